@@ -0,0 +1,398 @@
+package JAVA_08_COLLECTION_FRAMEWORK;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Topic: Work-Stealing Deque (Chase-Lev)
+ * The owner thread push()es and pop()s at the bottom like a stack; any other thread
+ * steal()s from the top like a queue. No locks: VarHandle ordering + one CAS on top.
+ */
+public class Java_13_WorkStealingDeque {
+
+    public static void main(String[] args) throws InterruptedException {
+
+        // =========================
+        // CORE OPERATIONS
+        // =========================
+        WorkStealingDeque<Integer> deque = new WorkStealingDeque<>();
+        deque.push(10);
+        deque.push(20);
+        deque.push(30);
+
+        System.out.println("pop   (owner, LIFO) : " + deque.pop());   // 30
+        System.out.println("steal (thief, FIFO) : " + deque.steal()); // 10
+        System.out.println("size                : " + deque.size());  // 1
+
+        // =========================
+        // STRESS: every element taken exactly once, thieves see FIFO order
+        // =========================
+        int thieves = Math.max(3, Runtime.getRuntime().availableProcessors() - 1);
+        for (int round = 0; round < 5; round++) stress(thieves, 1_000_000);
+
+        // =========================
+        // BENCHMARK: fork/join-style task tree on 4 workers
+        // =========================
+        int workers = Math.max(4, Runtime.getRuntime().availableProcessors());
+        System.out.println("\nRecursive range-split job, " + workers + " workers (best of 5)");
+        System.out.println("deque                 | ms");
+        for (int i = 0; i < 2; i++) { // first pass = warm-up
+            boolean print = i == 1;
+            bench("WorkStealingDeque", print, workers, () -> new ChaseLevAdapter(new WorkStealingDeque<>()));
+            bench("ConcurrentLinkedDeque", print, workers, () -> new JucAdapter(new ConcurrentLinkedDeque<>()));
+            bench("LinkedBlockingDeque", print, workers, () -> new JucAdapter(new LinkedBlockingDeque<>()));
+        }
+    }
+
+    // =========================
+    // THE DEQUE
+    // =========================
+    public static final class WorkStealingDeque<E> {
+        private static final VarHandle TOP, BOTTOM, ARRAY, SLOT;
+
+        static {
+            try {
+                MethodHandles.Lookup l = MethodHandles.lookup();
+                TOP = l.findVarHandle(WorkStealingDeque.class, "top", long.class);
+                BOTTOM = l.findVarHandle(WorkStealingDeque.class, "bottom", long.class);
+                ARRAY = l.findVarHandle(WorkStealingDeque.class, "array", Object[].class);
+                SLOT = MethodHandles.arrayElementVarHandle(Object[].class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        // top: next slot to steal (thieves + owner CAS it); bottom: next free slot (owner only)
+        private volatile long top;
+        private volatile long bottom;
+        private volatile Object[] array; // power-of-two circular buffer, replaced on growth
+
+        public WorkStealingDeque() {
+            this(64);
+        }
+
+        public WorkStealingDeque(int initialCapacity) {
+            array = new Object[Integer.highestOneBit(Math.max(2, initialCapacity - 1)) << 1];
+        }
+
+        /** Owner only. */
+        public void push(E e) {
+            if (e == null) throw new NullPointerException();
+            long b = (long) BOTTOM.getOpaque(this);     // only we write bottom
+            long t = (long) TOP.getAcquire(this);
+            Object[] a = (Object[]) ARRAY.getOpaque(this);
+            if (b - t > a.length - 1) a = grow(a, t, b);
+            SLOT.setRelease(a, (int) (b & (a.length - 1)), e);
+            BOTTOM.setRelease(this, b + 1);             // publishes the element to thieves
+        }
+
+        /** Owner only. Newest element, or null if empty. */
+        @SuppressWarnings("unchecked")
+        public E pop() {
+            long b = (long) BOTTOM.getOpaque(this) - 1;
+            Object[] a = (Object[]) ARRAY.getOpaque(this);
+            BOTTOM.setVolatile(this, b);                // claim the slot BEFORE reading top...
+            long t = (long) TOP.getVolatile(this);      // ...full fence: a thief can't miss our claim
+            if (t > b) {                                // empty
+                BOTTOM.setOpaque(this, b + 1);
+                return null;
+            }
+            int i = (int) (b & (a.length - 1));
+            E e = (E) SLOT.getOpaque(a, i);
+            if (t == b) {                               // last element: race thieves for it
+                boolean won = TOP.compareAndSet(this, t, t + 1);
+                BOTTOM.setOpaque(this, b + 1);
+                if (!won) return null;
+            }
+            SLOT.setOpaque(a, i, null);                 // let GC have it (owner-only slot now)
+            return e;
+        }
+
+        /** Any thread. Oldest element, or null if empty. Lock-free: retries only when another taker won. */
+        @SuppressWarnings("unchecked")
+        public E steal() {
+            while (true) {
+                long t = (long) TOP.getAcquire(this);
+                VarHandle.fullFence();                  // read top strictly before bottom
+                long b = (long) BOTTOM.getAcquire(this);
+                if (t >= b) return null;
+                Object[] a = (Object[]) ARRAY.getAcquire(this);
+                E e = (E) SLOT.getAcquire(a, (int) (t & (a.length - 1)));
+                if (TOP.compareAndSet(this, t, t + 1)) return e; // CAS failed → someone took slot t
+                Thread.onSpinWait();
+            }
+        }
+
+        /** Snapshot; exact only when no other thread is operating. */
+        public int size() {
+            long n = bottom - top;
+            return (int) Math.max(0, n);
+        }
+
+        public boolean isEmpty() {
+            return size() == 0;
+        }
+
+        /**
+         * Owner only. Copies [t, b) into a twice-as-large array. The old array is never written
+         * again, so a thief still reading it sees the same element at the same logical index.
+         */
+        private Object[] grow(Object[] old, long t, long b) {
+            Object[] a = new Object[old.length << 1];
+            for (long i = t; i < b; i++) a[(int) (i & (a.length - 1))] = old[(int) (i & (old.length - 1))];
+            ARRAY.setRelease(this, a);
+            return a;
+        }
+    }
+
+    // =========================
+    // STRESS TEST
+    // =========================
+    /**
+     * Owner pushes 0..n-1 in order and pops now and then; thieves steal concurrently.
+     * Checks: (1) every value taken exactly once, (2) each thief's steals strictly increase
+     * (top is FIFO).
+     */
+    private static void stress(int thieves, int n) throws InterruptedException {
+        WorkStealingDeque<Integer> deque = new WorkStealingDeque<>(2); // tiny: exercises grow() a lot
+        AtomicIntegerArray taken = new AtomicIntegerArray(n);
+        AtomicLong violations = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        boolean[] done = new boolean[1];
+        Object doneLock = new Object();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int k = 0; k < thieves; k++) {
+            threads.add(new Thread(() -> {
+                await(start);
+                int last = -1;
+                while (true) {
+                    Integer v = deque.steal();
+                    if (v == null) {
+                        synchronized (doneLock) {
+                            if (done[0] && deque.isEmpty()) return;
+                        }
+                        continue;
+                    }
+                    if (v <= last) violations.incrementAndGet();
+                    last = v;
+                    if (taken.getAndIncrement(v) != 0) violations.incrementAndGet();
+                }
+            }));
+        }
+        Thread owner = new Thread(() -> {
+            await(start);
+            for (int i = 0; i < n; i++) {
+                deque.push(i);
+                if ((i & 3) == 3) { // pop roughly one in four pushes
+                    Integer v = deque.pop();
+                    if (v != null && taken.getAndIncrement(v) != 0) violations.incrementAndGet();
+                }
+            }
+            Integer v;
+            while ((v = deque.pop()) != null) {
+                if (taken.getAndIncrement(v) != 0) violations.incrementAndGet();
+            }
+            synchronized (doneLock) {
+                done[0] = true;
+            }
+        });
+        threads.add(owner);
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread t : threads) t.join();
+
+        int lost = 0;
+        for (int i = 0; i < n; i++) if (taken.get(i) == 0) lost++;
+        System.out.printf("stress %,d items, %d thieves: lost=%d, duplicated/out-of-order=%d %s%n",
+                n, thieves, lost, violations.get(), lost == 0 && violations.get() == 0 ? "OK" : "FAILED");
+    }
+
+    // =========================
+    // BENCHMARK
+    // =========================
+    interface TaskDeque {
+        void push(long task);
+
+        Long pop();
+
+        Long steal();
+    }
+
+    static final class ChaseLevAdapter implements TaskDeque {
+        private final WorkStealingDeque<Long> d;
+
+        ChaseLevAdapter(WorkStealingDeque<Long> d) { this.d = d; }
+
+        @Override public void push(long task) { d.push(task); }
+        @Override public Long pop() { return d.pop(); }
+        @Override public Long steal() { return d.steal(); }
+    }
+
+    /** Owner works at the tail (LIFO), thieves take the head — same discipline, locks/CAS per node. */
+    static final class JucAdapter implements TaskDeque {
+        private final Deque<Long> d;
+
+        JucAdapter(Deque<Long> d) {
+            this.d = d;
+        }
+
+        @Override public void push(long task) { d.offerLast(task); }
+        @Override public Long pop() { return d.pollLast(); }
+        @Override public Long steal() { return d.pollFirst(); }
+    }
+
+    static final int LEAF = 1 << 6;
+    static volatile long sink;
+
+    /** Task = range [lo, hi) packed in a long; split until LEAF, then sum. */
+    private static void bench(String name, boolean print, int workers, Supplier<TaskDeque> factory)
+            throws InterruptedException {
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < 5; run++) best = Math.min(best, runJob(workers, factory, 1 << 24));
+        if (print) System.out.printf("%-21s | %6.1f%n", name, best / 1e6);
+    }
+
+    private static long runJob(int workers, Supplier<TaskDeque> factory, int n) throws InterruptedException {
+        TaskDeque[] deques = new TaskDeque[workers];
+        for (int w = 0; w < workers; w++) deques[w] = factory.get();
+        AtomicLong pending = new AtomicLong(1); // tasks pushed but not finished
+        AtomicLong total = new AtomicLong();
+        deques[0].push(pack(0, n));
+
+        Thread[] threads = new Thread[workers];
+        for (int w = 0; w < workers; w++) {
+            int me = w;
+            threads[w] = new Thread(() -> {
+                TaskDeque own = deques[me];
+                long sum = 0;
+                int victim = me;
+                while (pending.get() > 0) {
+                    Long task = own.pop();
+                    if (task == null) {
+                        victim = (victim + 1) % workers;
+                        if (victim == me) continue;
+                        task = deques[victim].steal();
+                        if (task == null) continue;
+                    }
+                    int lo = (int) (task >>> 32), hi = (int) (long) task;
+                    while (hi - lo > LEAF) {           // split: keep the left half, offer the right
+                        int mid = (lo + hi) >>> 1;
+                        pending.incrementAndGet();
+                        own.push(pack(mid, hi));
+                        hi = mid;
+                    }
+                    for (int i = lo; i < hi; i++) sum += i & 1023;
+                    pending.decrementAndGet();
+                }
+                total.addAndGet(sum);
+            });
+        }
+        long t0 = System.nanoTime();
+        for (Thread t : threads) t.start();
+        for (Thread t : threads) t.join();
+        long elapsed = System.nanoTime() - t0;
+        sink = total.get();
+        return elapsed;
+    }
+
+    private static long pack(int lo, int hi) {
+        return ((long) lo << 32) | (hi & 0xFFFFFFFFL);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
+
+/*
+================================================================================
+WORK-STEALING DEQUE (CHASE-LEV) – ENTERPRISE & JVM LEVEL DEEP DIVE
+================================================================================
+
+WHAT:
+-----
+A deque with ONE owner and MANY thieves:
+• push / pop  → bottom end, owner thread only (LIFO: newest task, hot in cache)
+• steal       → top end, any thread (FIFO: oldest task = biggest chunk of work)
+
+Problem it solves:
+• Load balancing for fork/join schedulers without a shared queue
+
+WHY IT EXISTS:
+--------------
+ArrayDeque (Java_10_Deque):
+• Fast, but not thread-safe
+
+ConcurrentLinkedDeque / LinkedBlockingDeque:
+• Thread-safe, but every operation pays CAS / lock + a Node allocation
+• Both ends are symmetric → the owner pays for contention it almost never has
+
+Chase-Lev (2005, memory-model fixes by Lê et al. 2013):
+• Owner push is a plain store + release store
+• Owner pop needs a CAS ONLY for the last element
+• Used by ForkJoinPool (its WorkQueue is a close variant)
+
+INTERNAL WORKING:
+-----------------
+• Circular Object[] (power of two) + two counters that only grow:
+  top (steal end), bottom (push end); size = bottom − top
+• push: write slot[bottom] → setRelease(bottom + 1)
+• pop: bottom − 1 (volatile) → read top (volatile)
+  - more than one left → take it, no CAS
+  - exactly one left   → CAS top to race the thieves
+• steal: read top → fence → read bottom → read slot[top] → CAS top + 1
+• grow: copy live range into 2× array; the old array is left untouched for
+  thieves that still hold it
+
+DEFAULT VALUES:
+---------------
+Initial capacity: 64
+Growth: ×2 (never shrinks)
+Thread safety: ✅ one owner + any number of thieves
+
+TIME COMPLEXITY:
+----------------
+push  → O(1) amortized
+pop   → O(1)
+steal → O(1), lock-free (retries only when another taker won)
+
+CORE FEATURES:
+--------------
+Ordering      → LIFO for owner, FIFO for thieves
+Duplicates    → Allowed
+Null handling → ❌ Not allowed (null = empty)
+Thread safety → Owner-only push/pop, shared steal
+
+ENTERPRISE PITFALLS:
+--------------------
+• Calling push/pop from a non-owner thread → silent corruption
+• Stolen slots are not cleared (the owner may reuse them) → an object can stay
+  reachable until its slot is overwritten
+• size() is a racy snapshot: use it as a hint only
+
+REAL SYSTEM USAGE:
+------------------
+• ForkJoinPool / parallel streams
+• Go, Tokio, Cilk, .NET TPL schedulers
+
+INTERVIEW ONE-LINER:
+-------------------
+"The owner uses its deque like a stack without locks; thieves steal the oldest task from
+the other end with a single CAS."
+
+================================================================================
+*/
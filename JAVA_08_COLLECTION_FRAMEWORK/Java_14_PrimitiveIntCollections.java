@@ -0,0 +1,647 @@
+package JAVA_08_COLLECTION_FRAMEWORK;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Topic: Primitive int Collections
+ * IntArrayList, IntArrayDeque, IntStack and IntOpenHashSet store raw int values in int[]:
+ * no Integer object per element, no pointer chase per read. Same method names as the
+ * boxed demos in Java_4_Stack, Java_9_Queue and Java_10_Deque.
+ */
+public class Java_14_PrimitiveIntCollections {
+
+    public static void main(String[] args) {
+
+        // =========================
+        // CORE OPERATIONS
+        // =========================
+        IntArrayList list = new IntArrayList();
+        list.add(10);
+        list.add(20);
+        list.set(0, 5);
+        System.out.println("list    : " + list + " get(1)=" + list.get(1) + " contains(20)=" + list.contains(20));
+
+        IntArrayDeque deque = new IntArrayDeque();
+        deque.offerFirst(10);
+        deque.offerLast(20);
+        deque.push(5);
+        System.out.println("deque   : " + deque + " pollLast()=" + deque.pollLast() + " pop()=" + deque.pop());
+
+        IntStack stack = new IntStack();
+        stack.push(10);
+        stack.push(20);
+        stack.push(30);
+        System.out.println("stack   : " + stack + " peek()=" + stack.peek() + " search(10)=" + stack.search(10)
+                + " pop()=" + stack.pop());
+
+        IntOpenHashSet set = new IntOpenHashSet();
+        set.add(0);
+        set.add(42);
+        set.add(42);
+        set.remove(7);
+        System.out.println("set     : " + set + " size=" + set.size() + " contains(0)=" + set.contains(0));
+
+        // =========================
+        // ITERATION (no boxing)
+        // =========================
+        long sum = 0;
+        for (PrimitiveIterator.OfInt it = list.iterator(); it.hasNext(); ) sum += it.nextInt();
+        set.forEach((IntConsumer) v -> {});
+        System.out.println("sum     : " + sum);
+
+        // =========================
+        // SET vs HashSet (random add/remove, exercises backward shift)
+        // =========================
+        IntOpenHashSet mine = new IntOpenHashSet();
+        Set<Integer> reference = new HashSet<>();
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 1_000_000; i++) {
+            int v = random.nextInt(-5_000, 5_000);
+            boolean same = random.nextBoolean() ? mine.add(v) == reference.add(v) : mine.remove(v) == reference.remove(v);
+            if (!same || mine.size() != reference.size()) throw new AssertionError("diverged at step " + i);
+        }
+        for (int v = -5_000; v < 5_000; v++) if (mine.contains(v) != reference.contains(v)) throw new AssertionError(v);
+        System.out.println("set check: 1,000,000 random add/remove identical to HashSet");
+
+        // =========================
+        // HEAP FOOTPRINT + SPEED vs BOXED
+        // =========================
+        int maxExponent = args.length > 0 ? Integer.parseInt(args[0]) : 7; // 8 needs -Xmx8g for the boxed side
+        for (int e = 6; e <= maxExponent; e++) compare((int) Math.pow(10, e));
+    }
+
+    // =========================
+    // IntArrayList
+    // =========================
+    public static final class IntArrayList {
+        private int[] data;
+        private int size;
+
+        public IntArrayList() {
+            this(10);
+        }
+
+        public IntArrayList(int initialCapacity) {
+            data = new int[Math.max(1, initialCapacity)];
+        }
+
+        public void add(int value) {
+            if (size == data.length) data = Arrays.copyOf(data, data.length + (data.length >> 1) + 1); // ×1.5 like ArrayList
+            data[size++] = value;
+        }
+
+        public int get(int index) {
+            Objects.checkIndex(index, size);
+            return data[index];
+        }
+
+        public int set(int index, int value) {
+            Objects.checkIndex(index, size);
+            int old = data[index];
+            data[index] = value;
+            return old;
+        }
+
+        /** Named removeAt (not remove) so remove(int index) vs remove(Object) can't be confused. */
+        public int removeAt(int index) {
+            Objects.checkIndex(index, size);
+            int old = data[index];
+            System.arraycopy(data, index + 1, data, index, size - index - 1);
+            size--;
+            return old;
+        }
+
+        public int indexOf(int value) {
+            for (int i = 0; i < size; i++) if (data[i] == value) return i;
+            return -1;
+        }
+
+        public boolean contains(int value) { return indexOf(value) >= 0; }
+        public int size() { return size; }
+        public boolean isEmpty() { return size == 0; }
+        public void clear() { size = 0; }
+        public int[] toArray() { return Arrays.copyOf(data, size); }
+
+        public PrimitiveIterator.OfInt iterator() {
+            return Arrays.stream(data, 0, size).iterator();
+        }
+
+        public void forEach(IntConsumer action) {
+            for (int i = 0; i < size; i++) action.accept(data[i]);
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(toArray());
+        }
+    }
+
+    // =========================
+    // IntArrayDeque
+    // =========================
+    /**
+     * Circular int[] (power of two) like ArrayDeque. There is no null for int, so
+     * poll*() / pop() on an empty deque throw NoSuchElementException: check isEmpty() first.
+     */
+    public static final class IntArrayDeque {
+        private int[] data;
+        private int head, size; // head = index of first element
+
+        public IntArrayDeque() {
+            this(16);
+        }
+
+        public IntArrayDeque(int initialCapacity) {
+            data = new int[Integer.highestOneBit(Math.max(2, initialCapacity - 1)) << 1];
+        }
+
+        public void offerFirst(int value) {
+            if (size == data.length) grow();
+            head = (head - 1) & (data.length - 1);
+            data[head] = value;
+            size++;
+        }
+
+        public void offerLast(int value) {
+            if (size == data.length) grow();
+            data[(head + size) & (data.length - 1)] = value;
+            size++;
+        }
+
+        public int pollFirst() {
+            int v = peekFirst();
+            head = (head + 1) & (data.length - 1);
+            size--;
+            return v;
+        }
+
+        public int pollLast() {
+            int v = peekLast();
+            size--;
+            return v;
+        }
+
+        public int peekFirst() {
+            if (size == 0) throw new NoSuchElementException();
+            return data[head];
+        }
+
+        public int peekLast() {
+            if (size == 0) throw new NoSuchElementException();
+            return data[(head + size - 1) & (data.length - 1)];
+        }
+
+        // Stack / Queue vocabulary, mapped the way java.util.Deque maps it
+        public void push(int value) { offerFirst(value); }
+        public int pop() { return pollFirst(); }
+        public void offer(int value) { offerLast(value); }
+        public int poll() { return pollFirst(); }
+
+        public boolean contains(int value) {
+            for (int i = 0; i < size; i++) if (data[(head + i) & (data.length - 1)] == value) return true;
+            return false;
+        }
+
+        public int size() { return size; }
+        public boolean isEmpty() { return size == 0; }
+
+        public void clear() {
+            head = 0;
+            size = 0;
+        }
+
+        /** First to last. */
+        public PrimitiveIterator.OfInt iterator() {
+            return new PrimitiveIterator.OfInt() {
+                private int i;
+
+                @Override public boolean hasNext() { return i < size; }
+
+                @Override
+                public int nextInt() {
+                    if (i >= size) throw new NoSuchElementException();
+                    return data[(head + i++) & (data.length - 1)];
+                }
+            };
+        }
+
+        private void grow() {
+            int[] bigger = new int[data.length << 1];
+            int firstPart = Math.min(size, data.length - head);
+            System.arraycopy(data, head, bigger, 0, firstPart);        // head .. end of array
+            System.arraycopy(data, 0, bigger, firstPart, size - firstPart); // wrapped part
+            data = bigger;
+            head = 0;
+        }
+
+        @Override
+        public String toString() {
+            StringJoiner j = new StringJoiner(", ", "[", "]");
+            for (PrimitiveIterator.OfInt it = iterator(); it.hasNext(); ) j.add(String.valueOf(it.nextInt()));
+            return j.toString();
+        }
+    }
+
+    // =========================
+    // IntStack
+    // =========================
+    /** Java_4_Stack without Vector: not synchronized, no get/set by index, no boxing. */
+    public static final class IntStack {
+        private int[] data;
+        private int size;
+
+        public IntStack() {
+            this(10);
+        }
+
+        public IntStack(int initialCapacity) {
+            data = new int[Math.max(1, initialCapacity)];
+        }
+
+        public int push(int value) {
+            if (size == data.length) data = Arrays.copyOf(data, data.length << 1);
+            data[size++] = value;
+            return value;
+        }
+
+        public int pop() {
+            if (size == 0) throw new EmptyStackException();
+            return data[--size];
+        }
+
+        public int peek() {
+            if (size == 0) throw new EmptyStackException();
+            return data[size - 1];
+        }
+
+        /** 1-based distance from the top, -1 if absent (same contract as Stack.search). */
+        public int search(int value) {
+            for (int i = size - 1; i >= 0; i--) if (data[i] == value) return size - i;
+            return -1;
+        }
+
+        public boolean contains(int value) { return search(value) > 0; }
+        public int size() { return size; }
+        public boolean isEmpty() { return size == 0; }
+        public void clear() { size = 0; }
+
+        /** Bottom to top, like iterating a java.util.Stack. */
+        public PrimitiveIterator.OfInt iterator() {
+            return Arrays.stream(data, 0, size).iterator();
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(Arrays.copyOf(data, size));
+        }
+    }
+
+    // =========================
+    // IntOpenHashSet
+    // =========================
+    /**
+     * Open addressing with linear probing in ONE int[]. 0 marks a free slot, so the value 0
+     * itself is tracked by a separate flag. Removal shifts the following cluster back
+     * instead of leaving tombstones.
+     */
+    public static final class IntOpenHashSet {
+        private static final float LOAD_FACTOR = 0.75f;
+        private int[] table;
+        private int mask;
+        private int size; // excluding zero
+        private boolean containsZero;
+
+        public IntOpenHashSet() {
+            this(16);
+        }
+
+        public IntOpenHashSet(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(4, (int) (expected / LOAD_FACTOR)) - 1) << 1;
+            table = new int[capacity];
+            mask = capacity - 1;
+        }
+
+        /** Fibonacci hashing: spreads sequential ints (very common keys) over the whole table. */
+        private int slot(int value) {
+            return (value * 0x9E3779B9) >>> (32 - Integer.numberOfTrailingZeros(table.length)) & mask;
+        }
+
+        public boolean add(int value) {
+            if (value == 0) {
+                boolean added = !containsZero;
+                containsZero = true;
+                return added;
+            }
+            int i = slot(value);
+            while (table[i] != 0) {
+                if (table[i] == value) return false;
+                i = (i + 1) & mask;
+            }
+            table[i] = value;
+            if (++size > table.length * LOAD_FACTOR) rehash(table.length << 1);
+            return true;
+        }
+
+        public boolean contains(int value) {
+            if (value == 0) return containsZero;
+            int i = slot(value);
+            int v;
+            while ((v = table[i]) != 0) {
+                if (v == value) return true;
+                i = (i + 1) & mask;
+            }
+            return false;
+        }
+
+        public boolean remove(int value) {
+            if (value == 0) {
+                boolean removed = containsZero;
+                containsZero = false;
+                return removed;
+            }
+            int i = slot(value);
+            while (table[i] != value) {
+                if (table[i] == 0) return false;
+                i = (i + 1) & mask;
+            }
+            // Backward shift: move later cluster members into the hole if their home allows it
+            int hole = i;
+            int j = i;
+            while (true) {
+                j = (j + 1) & mask;
+                int v = table[j];
+                if (v == 0) break;
+                int home = slot(v);
+                // v may move to hole only if hole lies cyclically in [home, j)
+                if (((j - home) & mask) >= ((j - hole) & mask)) {
+                    table[hole] = v;
+                    hole = j;
+                }
+            }
+            table[hole] = 0;
+            size--;
+            return true;
+        }
+
+        public int size() { return size + (containsZero ? 1 : 0); }
+        public boolean isEmpty() { return size() == 0; }
+
+        public void clear() {
+            Arrays.fill(table, 0);
+            size = 0;
+            containsZero = false;
+        }
+
+        public void forEach(IntConsumer action) {
+            if (containsZero) action.accept(0);
+            for (int v : table) if (v != 0) action.accept(v);
+        }
+
+        /** Table order (no defined ordering, like HashSet). */
+        public PrimitiveIterator.OfInt iterator() {
+            return new PrimitiveIterator.OfInt() {
+                private int i = containsZero ? -1 : advance(0);
+
+                private int advance(int from) {
+                    while (from < table.length && table[from] == 0) from++;
+                    return from;
+                }
+
+                @Override public boolean hasNext() { return i < table.length; }
+
+                @Override
+                public int nextInt() {
+                    if (!hasNext()) throw new NoSuchElementException();
+                    int v = i < 0 ? 0 : table[i];
+                    i = advance(i + 1);
+                    return v;
+                }
+            };
+        }
+
+        private void rehash(int capacity) {
+            int[] old = table;
+            table = new int[capacity];
+            mask = capacity - 1;
+            for (int v : old) {
+                if (v == 0) continue;
+                int i = slot(v);
+                while (table[i] != 0) i = (i + 1) & mask;
+                table[i] = v;
+            }
+        }
+
+        @Override
+        public String toString() {
+            StringJoiner j = new StringJoiner(", ", "[", "]");
+            forEach((IntConsumer) v -> j.add(String.valueOf(v)));
+            return j.toString();
+        }
+    }
+
+    // =========================
+    // BENCHMARK
+    // =========================
+    static Object keepAlive;
+    static long sink;
+
+    @SuppressWarnings("unchecked")
+    private static void compare(int n) {
+        int[] keys = new int[n];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < n; i++) keys[i] = random.nextInt();
+
+        System.out.printf("%n%,d elements%n", n);
+        System.out.println("collection                   | heap MB  | bytes/elem | ms (fill + read)");
+
+        row("ArrayList<Integer>", () -> {
+            List<Integer> l = new ArrayList<>();
+            for (int i = 0; i < n; i++) l.add(i + 1_000);
+            return l;
+        }, l -> {
+            long s = 0;
+            for (int v : (List<Integer>) l) s += v;
+            return s;
+        }, n);
+        row("IntArrayList", () -> {
+            IntArrayList l = new IntArrayList();
+            for (int i = 0; i < n; i++) l.add(i + 1_000);
+            return l;
+        }, l -> {
+            long s = 0;
+            IntArrayList il = (IntArrayList) l;
+            for (int i = 0; i < il.size(); i++) s += il.get(i);
+            return s;
+        }, n);
+
+        row("ArrayDeque<Integer>", () -> {
+            Deque<Integer> d = new ArrayDeque<>();
+            for (int i = 0; i < n; i++) d.offerLast(i + 1_000);
+            return d;
+        }, d -> {
+            long s = 0;
+            Deque<Integer> dq = (Deque<Integer>) d;
+            for (int i = 0; i < n; i++) { int v = dq.pollFirst(); s += v; dq.offerLast(v); }
+            return s;
+        }, n);
+        row("IntArrayDeque", () -> {
+            IntArrayDeque d = new IntArrayDeque();
+            for (int i = 0; i < n; i++) d.offerLast(i + 1_000);
+            return d;
+        }, d -> {
+            long s = 0;
+            IntArrayDeque dq = (IntArrayDeque) d;
+            for (int i = 0; i < n; i++) { int v = dq.pollFirst(); s += v; dq.offerLast(v); }
+            return s;
+        }, n);
+
+        row("Stack<Integer>", () -> {
+            Stack<Integer> st = new Stack<>();
+            for (int i = 0; i < n; i++) st.push(i + 1_000);
+            return st;
+        }, st -> {
+            long s = 0;
+            Stack<Integer> stk = (Stack<Integer>) st;
+            for (int i = 0; i < n; i++) { int v = stk.pop(); s += v; stk.push(v); }
+            return s;
+        }, n);
+        row("IntStack", () -> {
+            IntStack st = new IntStack();
+            for (int i = 0; i < n; i++) st.push(i + 1_000);
+            return st;
+        }, st -> {
+            long s = 0;
+            IntStack stk = (IntStack) st;
+            for (int i = 0; i < n; i++) { int v = stk.pop(); s += v; stk.push(v); }
+            return s;
+        }, n);
+
+        row("HashSet<Integer>", () -> {
+            Set<Integer> hs = new HashSet<>();
+            for (int k : keys) hs.add(k);
+            return hs;
+        }, hs -> {
+            long s = 0;
+            Set<Integer> set = (Set<Integer>) hs;
+            for (int i = 0; i < n; i++) if (set.contains(keys[i] ^ (i & 1))) s++; // half hits, half misses
+            return s;
+        }, n);
+        row("IntOpenHashSet", () -> {
+            IntOpenHashSet hs = new IntOpenHashSet();
+            for (int k : keys) hs.add(k);
+            return hs;
+        }, hs -> {
+            long s = 0;
+            IntOpenHashSet set = (IntOpenHashSet) hs;
+            for (int i = 0; i < n; i++) if (set.contains(keys[i] ^ (i & 1))) s++;
+            return s;
+        }, n);
+    }
+
+    interface Reader {
+        long read(Object collection);
+    }
+
+    /** Heap retained by the built collection (GC before and after), then best-of-3 fill + read time. */
+    private static void row(String name, Supplier<Object> build, Reader read, int n) {
+        long before = usedHeapAfterGc();
+        keepAlive = build.get();
+        long retained = usedHeapAfterGc() - before;
+        sink += read.read(keepAlive);
+        keepAlive = null;
+
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < 3; run++) {
+            long t0 = System.nanoTime();
+            Object c = build.get();
+            sink += read.read(c);
+            best = Math.min(best, System.nanoTime() - t0);
+        }
+        System.out.printf("%-28s | %8.1f | %10.1f | %8.1f%n", name, retained / 1e6, (double) retained / n, best / 1e6);
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
+
+/*
+================================================================================
+PRIMITIVE int COLLECTIONS – ENTERPRISE & JVM LEVEL DEEP DIVE
+================================================================================
+
+WHAT:
+-----
+Collections that store int values directly in an int[]:
+• IntArrayList   → ArrayList<Integer>
+• IntArrayDeque  → ArrayDeque<Integer> (offerFirst / pollLast / push / pop)
+• IntStack       → Stack<Integer>      (push / pop / peek / search)
+• IntOpenHashSet → HashSet<Integer>    (add / contains / remove)
+
+WHY IT EXISTS:
+--------------
+Generics work on references only → List<Integer> stores POINTERS to Integer objects:
+• Integer object = 16 bytes (12 header + 4 value, padded)
+• + 4-byte reference in the array (compressed oops)
+• HashSet<Integer> → + HashMap.Node (32 bytes) per element
+• Every read = pointer chase → cache miss once data > CPU cache
+• Integer cache covers only -128..127
+
+INTERNAL WORKING:
+-----------------
+IntArrayList / IntStack:
+• int[] + size, grow by copy (×1.5 / ×2)
+
+IntArrayDeque:
+• Circular int[], power-of-two length → index & (length − 1)
+• grow(): unwrap into a 2× array
+
+IntOpenHashSet:
+• One int[] table, linear probing, load factor 0.75
+• 0 = free slot → the value 0 lives in a boolean flag
+• Fibonacci hashing (× 0x9E3779B9) so sequential keys don't cluster
+• remove(): backward-shift the cluster (no tombstones, lookups stay short)
+
+DEFAULT VALUES:
+---------------
+IntArrayList: 10, IntArrayDeque: 16, IntStack: 10, IntOpenHashSet: 16 slots
+Null handling: ❌ impossible (int)
+Thread safety: ❌ No
+
+TIME COMPLEXITY:
+----------------
+IntArrayList add / get      → O(1) amortized / O(1)
+IntArrayDeque offer / poll  → O(1) amortized
+IntStack push / pop         → O(1) amortized
+IntOpenHashSet add / contains / remove → O(1) average
+contains on list/deque/stack → O(n)
+
+CORE FEATURES:
+--------------
+Memory        → 4 bytes per element (+ growth slack) instead of 20–48
+Ordering      → List/Deque/Stack: insertion; Set: none
+Duplicates    → Set: not allowed
+Empty poll    → NoSuchElementException / EmptyStackException (no null for int)
+
+ENTERPRISE PITFALLS:
+--------------------
+• Using them with Stream<Integer> APIs → boxing comes right back (use IntStream)
+• Assuming poll() returns null when empty
+• Sharing between threads without external synchronization
+
+REAL SYSTEM USAGE:
+------------------
+• fastutil, Eclipse Collections, HPPC, Trove, Agrona
+• ID sets, graph adjacency lists, bitmap-like indexes, trading/order-id books
+
+INTERVIEW ONE-LINER:
+-------------------
+"Boxed collections store pointers to objects; primitive collections store the numbers
+themselves — 5–10× less memory and no pointer chasing."
+
+================================================================================
+*/
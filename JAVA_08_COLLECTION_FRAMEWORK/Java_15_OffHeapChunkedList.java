@@ -0,0 +1,312 @@
+package JAVA_08_COLLECTION_FRAMEWORK;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.StructLayout;
+import java.lang.foreign.ValueLayout;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+import static java.lang.foreign.MemoryLayout.PathElement.groupElement;
+
+/**
+ * Topic: Off-heap Chunked List
+ * A list of fixed-layout records stored in MemorySegment chunks outside the Java heap.
+ * Unlike Java_2_ArrayList it grows by allocating one more chunk (no copy), and the GC
+ * never marks or moves the elements.
+ * Java 21: java.lang.foreign is a preview API -> javac/java --enable-preview (final in 22).
+ */
+public class Java_15_OffHeapChunkedList {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000; // 100_000_000 needs -Xmx6g for ArrayList
+
+        // =========================
+        // CORE OPERATIONS
+        // =========================
+        try (OffHeapChunkedList<Trade> trades = new OffHeapChunkedList<>(Trade.CODEC, 1 << 10)) {
+            trades.add(new Trade(1, 101.5, 300));
+            trades.add(new Trade(2, 99.25, 100));
+            trades.set(0, new Trade(1, 102.0, 300));
+            System.out.println("get(0) = " + trades.get(0) + ", size = " + trades.size());
+
+            for (Trade t : trades) System.out.println("iterate: " + t);
+        } // close() frees every chunk at once; any later access throws IllegalStateException
+
+        // =========================
+        // GC + THROUGHPUT vs ArrayList
+        // =========================
+        System.out.printf("%n%,d trades%n", n);
+        System.out.println("list                      | fill ms | scan ms | GC count | GC ms (fill+scan) | full GC ms, list live");
+        benchmarkArrayList(n);
+        benchmarkOffHeap(n);
+    }
+
+    // =========================
+    // OffHeapChunkedList
+    // =========================
+    public static final class OffHeapChunkedList<T> implements Iterable<T>, AutoCloseable {
+
+        /** How one element is laid out and (de)serialized at a byte offset of a chunk. */
+        public interface Codec<T> {
+            MemoryLayout layout();
+            void write(MemorySegment chunk, long offset, T value);
+            T read(MemorySegment chunk, long offset);
+        }
+
+        /** Allocation-free scan callback: the element starts at {@code offset} inside {@code chunk}. */
+        @FunctionalInterface
+        public interface RawVisitor {
+            void visit(MemorySegment chunk, long offset);
+        }
+
+        private final Codec<T> codec;
+        private final long elementBytes;
+        private final int chunkShift;
+        private final long chunkMask;
+        private final Arena arena = Arena.ofShared(); // closing it releases all chunks together
+
+        private MemorySegment[] chunks = new MemorySegment[16]; // only references are copied on growth
+        private int chunkCount;
+        private long size;
+
+        /** @param chunkElements elements per chunk, rounded up to a power of two */
+        public OffHeapChunkedList(Codec<T> codec, int chunkElements) {
+            this.codec = codec;
+            this.elementBytes = codec.layout().byteSize();
+            this.chunkShift = 32 - Integer.numberOfLeadingZeros(Math.max(1, chunkElements) - 1);
+            this.chunkMask = (1L << chunkShift) - 1;
+        }
+
+        public long add(T value) {
+            long index = size;
+            if ((index >>> chunkShift) == chunkCount) addChunk();
+            codec.write(chunkOf(index), offsetOf(index), value);
+            size++;
+            return index;
+        }
+
+        public T get(long index) {
+            Objects.checkIndex(index, size);
+            return codec.read(chunkOf(index), offsetOf(index));
+        }
+
+        public void set(long index, T value) {
+            Objects.checkIndex(index, size);
+            codec.write(chunkOf(index), offsetOf(index), value);
+        }
+
+        public long size() { return size; }
+        public boolean isEmpty() { return size == 0; }
+
+        /** Visits every element in order without creating objects. */
+        public void forEachRaw(RawVisitor visitor) {
+            for (int c = 0; c < chunkCount; c++) {
+                long count = Math.min(chunkMask + 1, size - ((long) c << chunkShift));
+                MemorySegment chunk = chunks[c];
+                for (long i = 0, offset = 0; i < count; i++, offset += elementBytes) visitor.visit(chunk, offset);
+            }
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<>() {
+                private long next;
+
+                @Override public boolean hasNext() { return next < size; }
+
+                @Override
+                public T next() {
+                    if (next >= size) throw new NoSuchElementException();
+                    return get(next++);
+                }
+            };
+        }
+
+        /** Frees all chunks at once; a reader racing with close() gets IllegalStateException, never a crash. */
+        @Override
+        public void close() {
+            arena.close();
+        }
+
+        private void addChunk() {
+            if (chunkCount == chunks.length) chunks = Arrays.copyOf(chunks, chunkCount << 1);
+            chunks[chunkCount++] = arena.allocate(elementBytes << chunkShift, codec.layout().byteAlignment());
+        }
+
+        private MemorySegment chunkOf(long index) {
+            return chunks[(int) (index >>> chunkShift)];
+        }
+
+        private long offsetOf(long index) {
+            return (index & chunkMask) * elementBytes;
+        }
+    }
+
+    // =========================
+    // ELEMENT TYPE
+    // =========================
+    /** 24 bytes off-heap: long id | double price | int quantity | 4 bytes padding. */
+    record Trade(long id, double price, int quantity) {
+
+        static final StructLayout LAYOUT = MemoryLayout.structLayout(
+                ValueLayout.JAVA_LONG.withName("id"),
+                ValueLayout.JAVA_DOUBLE.withName("price"),
+                ValueLayout.JAVA_INT.withName("quantity"),
+                MemoryLayout.paddingLayout(4));
+
+        static final long ID = LAYOUT.byteOffset(groupElement("id"));
+        static final long PRICE = LAYOUT.byteOffset(groupElement("price"));
+        static final long QUANTITY = LAYOUT.byteOffset(groupElement("quantity"));
+
+        static final OffHeapChunkedList.Codec<Trade> CODEC = new OffHeapChunkedList.Codec<>() {
+            @Override public MemoryLayout layout() { return LAYOUT; }
+
+            @Override
+            public void write(MemorySegment chunk, long offset, Trade t) {
+                chunk.set(ValueLayout.JAVA_LONG, offset + ID, t.id);
+                chunk.set(ValueLayout.JAVA_DOUBLE, offset + PRICE, t.price);
+                chunk.set(ValueLayout.JAVA_INT, offset + QUANTITY, t.quantity);
+            }
+
+            @Override
+            public Trade read(MemorySegment chunk, long offset) {
+                return new Trade(chunk.get(ValueLayout.JAVA_LONG, offset + ID),
+                        chunk.get(ValueLayout.JAVA_DOUBLE, offset + PRICE),
+                        chunk.get(ValueLayout.JAVA_INT, offset + QUANTITY));
+            }
+        };
+    }
+
+    // =========================
+    // BENCHMARK
+    // =========================
+    static double sink;
+
+    private static void benchmarkArrayList(int n) {
+        long[] gc0 = gcTotals();
+        long t0 = System.nanoTime();
+        List<Trade> list = new ArrayList<>(); // default growth: copies the reference array ~log1.5(n) times
+        for (int i = 0; i < n; i++) list.add(new Trade(i, i * 0.01, i & 1023));
+        long t1 = System.nanoTime();
+        double notional = 0;
+        for (Trade t : list) notional += t.price() * t.quantity();
+        long t2 = System.nanoTime();
+        long[] gc1 = gcTotals();
+        sink += notional;
+        printRow("ArrayList<Trade>", t0, t1, t2, gc0, gc1, fullGcMillis());
+        sink += list.size();
+    }
+
+    private static void benchmarkOffHeap(int n) {
+        long[] gc0 = gcTotals();
+        long t0 = System.nanoTime();
+        try (OffHeapChunkedList<Trade> list = new OffHeapChunkedList<>(Trade.CODEC, 1 << 16)) {
+            for (int i = 0; i < n; i++) list.add(new Trade(i, i * 0.01, i & 1023)); // Trade dies young (or is scalar-replaced)
+            long t1 = System.nanoTime();
+            double[] notional = {0};
+            list.forEachRaw((chunk, offset) -> notional[0] +=
+                    chunk.get(ValueLayout.JAVA_DOUBLE, offset + Trade.PRICE) * chunk.get(ValueLayout.JAVA_INT, offset + Trade.QUANTITY));
+            long t2 = System.nanoTime();
+            long[] gc1 = gcTotals();
+            sink += notional[0];
+            printRow("OffHeapChunkedList<Trade>", t0, t1, t2, gc0, gc1, fullGcMillis());
+            sink += list.size();
+        }
+    }
+
+    private static void printRow(String name, long t0, long t1, long t2, long[] gc0, long[] gc1, long fullGc) {
+        System.out.printf("%-25s | %7d | %7d | %8d | %17d | %21d%n", name,
+                (t1 - t0) / 1_000_000, (t2 - t1) / 1_000_000, gc1[0] - gc0[0], gc1[1] - gc0[1], fullGc);
+    }
+
+    /** {collection count, collection millis} summed over all collectors. */
+    private static long[] gcTotals() {
+        long count = 0, millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return new long[]{count, millis};
+    }
+
+    /** Duration of one System.gc() — the GC has to trace whatever the list keeps on the heap. */
+    private static long fullGcMillis() {
+        long t0 = System.nanoTime();
+        System.gc();
+        return (System.nanoTime() - t0) / 1_000_000;
+    }
+}
+
+/*
+================================================================================
+OFF-HEAP CHUNKED LIST – ENTERPRISE & JVM LEVEL DEEP DIVE
+================================================================================
+
+WHAT:
+-----
+A List-like container of fixed-size records (structs) living in native memory:
+• Chunks = MemorySegment blocks of 2^k elements, allocated from one Arena
+• Element i → chunk (i >>> k), byte offset (i & (2^k − 1)) × elementSize
+• Codec maps a Java value ↔ bytes via a MemoryLayout
+
+WHY IT EXISTS:
+--------------
+ArrayList<Trade> with 100M elements:
+• 100M objects (32 bytes each) + 400 MB reference array → ~3.6 GB of heap
+• Every GC marking phase walks all 100M objects
+• Growth copies the reference array (×1.5): one 400 MB copy, with old + new live together
+• Objects are scattered → scan = pointer chase
+
+Off-heap chunks:
+• 24 bytes per element, contiguous, no headers, no references
+• GC sees one small MemorySegment per chunk, not 100M objects
+• Growth = allocate one more chunk, existing data never moves
+
+INTERNAL WORKING:
+-----------------
+• Arena.ofShared() owns all chunks → close() frees everything, deterministically
+• MemorySegment.get/set are bounds- and liveness-checked (no JVM crash after close)
+• JIT hoists those checks in tight loops → near array speed
+• forEachRaw() reads fields in place → zero allocation per element
+
+DEFAULT VALUES:
+---------------
+Chunk size: chosen by caller (rounded to power of two)
+Chunk table: 16 references, doubles (copies pointers only)
+Thread safety: ❌ No (reads after close() throw IllegalStateException)
+
+TIME COMPLEXITY:
+----------------
+add → O(1) (no amortized copy of elements)
+get / set → O(1)
+iterate → O(n), sequential memory
+remove from middle → not supported (fixed slots, append-only design)
+
+CORE FEATURES:
+--------------
+• Element type must be fixed-width (no Strings / references inside)
+• get() materializes a new object; hot paths use forEachRaw / field offsets
+• Native memory counts against -XX:MaxDirectMemorySize, not -Xmx
+
+ENTERPRISE PITFALLS:
+--------------------
+❌ Forgetting close() → native memory leak invisible to heap dumps
+❌ Using after close() → IllegalStateException (safe, but a bug)
+❌ Storing variable-length data → needs a separate string/blob area + offsets
+❌ Java 21 requires --enable-preview
+
+REAL SYSTEM USAGE:
+------------------
+• Chronicle Map / Queue, Apache Arrow, Lucene (MMapDirectory via MemorySegment)
+• Market data tick stores, Spark Tungsten, Netty pooled buffers
+
+INTERVIEW ONE-LINER:
+-------------------
+"Move the bulk data off-heap in fixed-size chunks: the GC sees a few segments instead of
+100 million objects, and growth never copies."
+
+================================================================================
+*/
@@ -0,0 +1,583 @@
+package JAVA_08_COLLECTION_FRAMEWORK;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Topic: Unrolled Linked List
+ * Same Deque API as the LinkedList in Java_3_LinkedListFeatures, but each node holds
+ * an array of up to 64 elements: one pointer hop per 64 elements instead of per element,
+ * and one node header per 64 elements instead of per element.
+ */
+public class Java_16_UnrolledLinkedList {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        UnrolledLinkedList<Integer> list = new UnrolledLinkedList<>();
+
+        // ================= LIST BEHAVIOR =================
+        list.add(10);
+        list.addFirst(5);
+        list.addLast(20);
+        System.out.println("list      : " + list + " first=" + list.getFirst() + " last=" + list.getLast());
+
+        // ================= QUEUE / STACK BEHAVIOR =================
+        list.offer(30);
+        list.poll();
+        list.push(40);
+        System.out.println("push/pop  : pop()=" + list.pop() + " peek()=" + list.peek());
+
+        // ================= MIDDLE INSERT THROUGH ITERATOR =================
+        ListIterator<Integer> it = list.listIterator();
+        it.next();
+        it.add(7);        // between 10 and 20: shifts inside one node, no traversal
+        it.next();
+        it.remove();      // removes 20
+        System.out.println("iterator  : " + list);
+
+        selfCheck();
+
+        // ================= BENCHMARK =================
+        benchmark(n);
+    }
+
+    // =========================
+    // UnrolledLinkedList
+    // =========================
+    /**
+     * Doubly linked list of array nodes. Each node keeps its elements in items[start, end),
+     * so addFirst fills a node from the back and addLast from the front — both O(1).
+     * A full node hit by a middle insert is split in half; a node emptied by a removal
+     * is unlinked. Allows null, not thread-safe, fail-fast iterators (like LinkedList).
+     */
+    public static final class UnrolledLinkedList<E> extends AbstractCollection<E> implements Deque<E> {
+
+        private static final class Node {
+            final Object[] items;
+            int start, end;
+            Node prev, next;
+
+            Node(int capacity, int position) {
+                items = new Object[capacity];
+                start = end = position;
+            }
+
+            int size() { return end - start; }
+        }
+
+        private final int nodeCapacity;
+        private Node head, tail; // never null: an empty list keeps one empty node
+        private int size;
+        private int modCount;
+
+        public UnrolledLinkedList() {
+            this(64);
+        }
+
+        public UnrolledLinkedList(int nodeCapacity) {
+            if (nodeCapacity < 4) throw new IllegalArgumentException("nodeCapacity < 4");
+            this.nodeCapacity = nodeCapacity;
+            head = tail = new Node(nodeCapacity, nodeCapacity / 2); // room on both sides for a deque
+        }
+
+        // ================= DEQUE ENDS: O(1) =================
+        @Override
+        public void addFirst(E e) {
+            if (head.start == 0) {
+                Node n = new Node(nodeCapacity, nodeCapacity); // filled from the back
+                n.next = head;
+                head.prev = n;
+                head = n;
+            }
+            head.items[--head.start] = e;
+            size++;
+            modCount++;
+        }
+
+        @Override
+        public void addLast(E e) {
+            if (tail.end == nodeCapacity) {
+                Node n = new Node(nodeCapacity, 0);            // filled from the front
+                n.prev = tail;
+                tail.next = n;
+                tail = n;
+            }
+            tail.items[tail.end++] = e;
+            size++;
+            modCount++;
+        }
+
+        @Override
+        public E removeFirst() {
+            if (size == 0) throw new NoSuchElementException();
+            Node h = head;
+            @SuppressWarnings("unchecked") E e = (E) h.items[h.start];
+            h.items[h.start++] = null;
+            size--;
+            modCount++;
+            if (h.start == h.end) unlinkEmpty(h);
+            return e;
+        }
+
+        @Override
+        public E removeLast() {
+            if (size == 0) throw new NoSuchElementException();
+            Node t = tail;
+            @SuppressWarnings("unchecked") E e = (E) t.items[--t.end];
+            t.items[t.end] = null;
+            size--;
+            modCount++;
+            if (t.start == t.end) unlinkEmpty(t);
+            return e;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E getFirst() {
+            if (size == 0) throw new NoSuchElementException();
+            return (E) head.items[head.start];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E getLast() {
+            if (size == 0) throw new NoSuchElementException();
+            return (E) tail.items[tail.end - 1];
+        }
+
+        // ================= DEQUE / QUEUE / STACK VOCABULARY =================
+        @Override public boolean offerFirst(E e) { addFirst(e); return true; }
+        @Override public boolean offerLast(E e) { addLast(e); return true; }
+        @Override public E pollFirst() { return size == 0 ? null : removeFirst(); }
+        @Override public E pollLast() { return size == 0 ? null : removeLast(); }
+        @Override public E peekFirst() { return size == 0 ? null : getFirst(); }
+        @Override public E peekLast() { return size == 0 ? null : getLast(); }
+
+        @Override public boolean add(E e) { addLast(e); return true; }
+        @Override public boolean offer(E e) { addLast(e); return true; }
+        @Override public E remove() { return removeFirst(); }
+        @Override public E poll() { return pollFirst(); }
+        @Override public E element() { return getFirst(); }
+        @Override public E peek() { return peekFirst(); }
+        @Override public void push(E e) { addFirst(e); }
+        @Override public E pop() { return removeFirst(); }
+
+        @Override
+        public boolean removeFirstOccurrence(Object o) {
+            for (ListIterator<E> it = listIterator(); it.hasNext(); ) {
+                if (Objects.equals(o, it.next())) {
+                    it.remove();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean removeLastOccurrence(Object o) {
+            for (ListIterator<E> it = listIterator(size); it.hasPrevious(); ) {
+                if (Objects.equals(o, it.previous())) {
+                    it.remove();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override public boolean remove(Object o) { return removeFirstOccurrence(o); }
+        @Override public int size() { return size; }
+
+        @Override
+        public void clear() {
+            head = tail = new Node(nodeCapacity, nodeCapacity / 2);
+            size = 0;
+            modCount++;
+        }
+
+        // ================= ITERATION =================
+        @Override
+        public Iterator<E> iterator() {
+            return listIterator(0);
+        }
+
+        /** Tight loop per node: no cursor bookkeeping per element. */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEach(Consumer<? super E> action) {
+            int expected = modCount;
+            for (Node n = head; n != null; n = n.next) {
+                for (int i = n.start; i < n.end; i++) action.accept((E) n.items[i]);
+            }
+            if (modCount != expected) throw new ConcurrentModificationException();
+        }
+
+        @Override
+        public Iterator<E> descendingIterator() {
+            ListIterator<E> it = listIterator(size);
+            return new Iterator<>() {
+                @Override public boolean hasNext() { return it.hasPrevious(); }
+                @Override public E next() { return it.previous(); }
+                @Override public void remove() { it.remove(); }
+            };
+        }
+
+        public ListIterator<E> listIterator() {
+            return listIterator(0);
+        }
+
+        /** Positioned before element {@code index}; walks whole nodes from the nearer end. */
+        public ListIterator<E> listIterator(int index) {
+            if (index < 0 || index > size) throw new IndexOutOfBoundsException(index);
+            Node node;
+            int pos;
+            if (index <= size / 2) {
+                node = head;
+                int remaining = index;
+                while (remaining > node.size()) {
+                    remaining -= node.size();
+                    node = node.next;
+                }
+                pos = node.start + remaining;
+            } else {
+                node = tail;
+                int remaining = size - index;
+                while (remaining > node.size()) {
+                    remaining -= node.size();
+                    node = node.prev;
+                }
+                pos = node.end - remaining;
+            }
+            return new Itr(node, pos, index);
+        }
+
+        /** Cursor = (node, pos): the next element is node.items[pos] once pos < node.end. */
+        private final class Itr implements ListIterator<E> {
+            private Node node;
+            private int pos;
+            private int index;
+            private Node lastNode; // element returned by the last next()/previous(), null after add/remove
+            private int lastPos;
+            private int expectedModCount = modCount;
+
+            Itr(Node node, int pos, int index) {
+                this.node = node;
+                this.pos = pos;
+                this.index = index;
+            }
+
+            @Override public boolean hasNext() { return index < size; }
+            @Override public boolean hasPrevious() { return index > 0; }
+            @Override public int nextIndex() { return index; }
+            @Override public int previousIndex() { return index - 1; }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                checkForComodification();
+                if (index >= size) throw new NoSuchElementException();
+                if (pos == node.end) { // only the sole node is ever empty, so one hop is enough
+                    node = node.next;
+                    pos = node.start;
+                }
+                lastNode = node;
+                lastPos = pos;
+                index++;
+                return (E) node.items[pos++];
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E previous() {
+                checkForComodification();
+                if (index <= 0) throw new NoSuchElementException();
+                if (pos == node.start) {
+                    node = node.prev;
+                    pos = node.end;
+                }
+                lastNode = node;
+                lastPos = --pos;
+                index--;
+                return (E) node.items[pos];
+            }
+
+            @Override
+            public void set(E e) {
+                if (lastNode == null) throw new IllegalStateException();
+                checkForComodification();
+                lastNode.items[lastPos] = e;
+            }
+
+            /** Shifts the tail of one node left by one: O(node capacity), never O(n). */
+            @Override
+            public void remove() {
+                if (lastNode == null) throw new IllegalStateException();
+                checkForComodification();
+                Node n = lastNode;
+                boolean afterRemoved = pos > lastPos; // last call was next()
+                System.arraycopy(n.items, lastPos + 1, n.items, lastPos, n.end - lastPos - 1);
+                n.items[--n.end] = null;
+                size--;
+                if (afterRemoved) index--;
+                node = n;
+                pos = lastPos;                      // the successor now sits where the removed element was
+                if (n.start == n.end) {
+                    Node successor = n.next, predecessor = n.prev;
+                    unlinkEmpty(n);
+                    if (successor != null) {
+                        node = successor;
+                        pos = successor.start;
+                    } else if (predecessor != null) {
+                        node = predecessor;
+                        pos = predecessor.end;
+                    } else {
+                        pos = n.start;              // n was reset in place as the only node
+                    }
+                }
+                lastNode = null;
+                expectedModCount = ++modCount;
+            }
+
+            /** Inserts before the cursor; a full node is split in half first. */
+            @Override
+            public void add(E e) {
+                checkForComodification();
+                if (node.end == nodeCapacity && node.start == 0) split();
+                if (node.end < nodeCapacity) {
+                    System.arraycopy(node.items, pos, node.items, pos + 1, node.end - pos);
+                    node.items[pos++] = e;
+                    node.end++;
+                } else {                            // room only at the front
+                    System.arraycopy(node.items, node.start, node.items, node.start - 1, pos - node.start);
+                    node.start--;
+                    node.items[pos - 1] = e;
+                }
+                size++;
+                index++;
+                lastNode = null;
+                expectedModCount = ++modCount;
+            }
+
+            /** Moves the upper half of the full cursor node into a new node after it. */
+            private void split() {
+                int half = nodeCapacity / 2;
+                Node right = new Node(nodeCapacity, 0);
+                System.arraycopy(node.items, half, right.items, 0, nodeCapacity - half);
+                Arrays.fill(node.items, half, nodeCapacity, null);
+                right.end = nodeCapacity - half;
+                node.end = half;
+                right.prev = node;
+                right.next = node.next;
+                if (node.next != null) node.next.prev = right; else tail = right;
+                node.next = right;
+                if (pos > half) {
+                    node = right;
+                    pos -= half;
+                }
+            }
+
+            private void checkForComodification() {
+                if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            }
+        }
+
+        /** Unlinks an empty node; the last remaining node is recentred instead. */
+        private void unlinkEmpty(Node n) {
+            if (n.prev == null && n.next == null) {
+                n.start = n.end = nodeCapacity / 2;
+                return;
+            }
+            if (n.prev != null) n.prev.next = n.next; else head = n.next;
+            if (n.next != null) n.next.prev = n.prev; else tail = n.prev;
+        }
+    }
+
+    // =========================
+    // CORRECTNESS vs LinkedList
+    // =========================
+    private static void selfCheck() {
+        UnrolledLinkedList<Integer> mine = new UnrolledLinkedList<>(8); // small nodes → many splits / unlinks
+        LinkedList<Integer> reference = new LinkedList<>();
+        SplittableRandom random = new SplittableRandom(3);
+        for (int step = 0; step < 200_000; step++) {
+            int op = random.nextInt(8);
+            int v = random.nextInt(1_000);
+            switch (op) {
+                case 0 -> { mine.addFirst(v); reference.addFirst(v); }
+                case 1 -> { mine.addLast(v); reference.addLast(v); }
+                case 2 -> check(Objects.equals(mine.pollFirst(), reference.pollFirst()), step);
+                case 3 -> check(Objects.equals(mine.pollLast(), reference.pollLast()), step);
+                default -> {                                  // iterator walk with add / remove / set
+                    int at = random.nextInt(reference.size() + 1);
+                    ListIterator<Integer> a = mine.listIterator(at), b = reference.listIterator(at);
+                    boolean forward = random.nextBoolean();
+                    if (forward ? a.hasNext() : a.hasPrevious()) {
+                        check(Objects.equals(forward ? a.next() : a.previous(), forward ? b.next() : b.previous()), step);
+                        if (op == 4) { a.remove(); b.remove(); }
+                        if (op == 5) { a.set(v); b.set(v); }
+                    }
+                    if (op >= 6) { a.add(v); b.add(v); }
+                    check(a.nextIndex() == b.nextIndex(), step);
+                }
+            }
+            check(mine.size() == reference.size(), step);
+        }
+        check(new ArrayList<>(mine).equals(reference), -1);
+        List<Integer> backwards = new ArrayList<>();
+        mine.descendingIterator().forEachRemaining(backwards::add);
+        Collections.reverse(backwards);
+        check(backwards.equals(reference), -1);
+        System.out.println("self-check: 200,000 random deque/iterator ops identical to LinkedList");
+    }
+
+    private static void check(boolean ok, int step) {
+        if (!ok) throw new AssertionError("diverged from LinkedList at step " + step);
+    }
+
+    // =========================
+    // BENCHMARK
+    // =========================
+    static Object keepAlive;
+    static long sink;
+
+    private static void benchmark(int n) {
+        Integer[] values = new Integer[n]; // shared by all lists → footprint below is structure only
+        for (int i = 0; i < n; i++) values[i] = i;
+        List<Supplier<Deque<Integer>>> kinds = List.of(LinkedList::new, ArrayDeque::new, UnrolledLinkedList::new);
+        List<String> names = List.of("LinkedList", "ArrayDeque", "UnrolledLinkedList");
+
+        System.out.printf("%n%,d elements (best of 5)%n", n);
+        System.out.println("deque               | bytes/elem | iterate ms | forEach ms | offerLast+pollFirst ms | push+pop ms | iterator insert every 8th ms");
+        for (int k = 0; k < kinds.size(); k++) {
+            Supplier<Deque<Integer>> kind = kinds.get(k);
+
+            long before = usedHeapAfterGc();
+            Deque<Integer> filled = kind.get();
+            for (Integer v : values) filled.addLast(v);
+            keepAlive = filled;
+            double bytesPerElement = (double) (usedHeapAfterGc() - before) / n;
+
+            long iterate = best(() -> {
+                long s = 0;
+                for (Integer v : filled) s += v;
+                sink += s;
+            });
+            long forEach = best(() -> {
+                long[] s = {0};
+                filled.forEach(v -> s[0] += v);
+                sink += s[0];
+            });
+            long queue = best(() -> {
+                for (int i = 0; i < n; i++) filled.offerLast(filled.pollFirst()); // rotate once
+            });
+            long stack = best(() -> {
+                Deque<Integer> d = kind.get();
+                for (Integer v : values) d.push(v);
+                while (!d.isEmpty()) sink += d.pop();
+            });
+            String insert = filled instanceof ArrayDeque ? "n/a" : String.format("%.1f", best(() -> {
+                Deque<Integer> d = kind.get();
+                for (int i = 0; i < n / 8; i++) d.addLast(values[i]);
+                ListIterator<Integer> it = d instanceof LinkedList<Integer> l ? l.listIterator()
+                        : ((UnrolledLinkedList<Integer>) d).listIterator();
+                int i = 0;
+                while (it.hasNext()) {
+                    it.next();
+                    if (++i % 8 == 0) it.add(-1);
+                }
+                sink += d.size();
+            }) / 1e6);
+            keepAlive = null;
+
+            System.out.printf("%-19s | %10.1f | %10.1f | %10.1f | %22.1f | %10.1f | %s%n", names.get(k), bytesPerElement,
+                    iterate / 1e6, forEach / 1e6, queue / 1e6, stack / 1e6, insert);
+        }
+    }
+
+    private static long best(Runnable body) {
+        long best = Long.MAX_VALUE;
+        for (int run = 0; run < 5; run++) {
+            long t0 = System.nanoTime();
+            body.run();
+            best = Math.min(best, System.nanoTime() - t0);
+        }
+        return best;
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
+
+/*
+================================================================================
+UNROLLED LINKED LIST – ENTERPRISE & JVM LEVEL DEEP DIVE
+================================================================================
+
+WHAT:
+-----
+A doubly linked list whose nodes are small arrays:
+class Node { Object[] items; int start, end; Node prev, next; }
+Elements of a node live in items[start, end).
+
+WHY IT EXISTS:
+--------------
+LinkedList (Java_3_LinkedListFeatures):
+• 1 Node (24 bytes) per element → ~24 bytes/elem of pure structure
+• 1 dependent pointer load per element → cache miss per hop
+ArrayDeque:
+• 4–8 bytes/elem, but no insert in the middle
+Unrolled list:
+• ~5–10 bytes/elem (array slots + one header per 64)
+• Sequential scan inside a node, 1 hop per 64 elements
+• Middle insert through the iterator = shift inside ONE node
+
+INTERNAL WORKING:
+-----------------
+• addFirst: room before start? write there : new node filled from the back
+• addLast:  room after end?     write there : new node filled from the front
+• removeFirst/Last: move start/end; empty node → unlink
+• Iterator add: node full → split into two half nodes, then shift ≤ 64 slots
+• Iterator remove: shift ≤ 64 slots; empty node → unlink
+• Empty list keeps one node centred at capacity / 2 (both ends O(1) immediately)
+
+DEFAULT VALUES:
+---------------
+Node capacity: 64
+Null elements: ✔ allowed (like LinkedList)
+Thread safety: ❌ No, fail-fast iterators
+
+TIME COMPLEXITY:
+----------------
+addFirst / addLast / removeFirst / removeLast → O(1)
+iterator add / remove                        → O(node capacity)
+listIterator(index)                          → O(n / node capacity)
+contains                                     → O(n)
+
+CORE FEATURES:
+--------------
+✔ Deque (queue + stack) API, drop-in for LinkedList used as Deque
+✔ ListIterator with add / set / remove
+❌ No List interface (no get(index) — LinkedList's get(index) is O(n) anyway)
+
+ENTERPRISE PITFALLS:
+--------------------
+❌ Many alternating middle inserts/removes → half-empty nodes (no merging here)
+❌ Very large node capacity → middle insert shifts become the cost
+❌ Expecting List semantics (equals/hashCode by content) — it is a Collection + Deque
+
+REAL SYSTEM USAGE:
+------------------
+• Text editor buffers / ropes, Redis quicklist (list of ziplists/listpacks)
+• Time-series chunk lists, log segment lists
+
+INTERVIEW ONE-LINER:
+-------------------
+"Unroll the linked list: keep the O(1) ends and cheap iterator inserts,
+but pay one pointer hop and one header per 64 elements instead of per element."
+
+================================================================================
+*/
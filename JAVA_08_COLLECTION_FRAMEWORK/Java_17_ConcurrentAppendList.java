@@ -0,0 +1,351 @@
+package JAVA_08_COLLECTION_FRAMEWORK;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Topic: Concurrent Append-Mostly List
+ * Replacement for Java_5_Vector (and the Vector inside Java_4_Stack) when threads mostly
+ * read and append: appends reserve a slot with one CAS, readers take no lock at all and
+ * only ever see a size whose slots are fully written.
+ */
+public class Java_17_ConcurrentAppendList {
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        long cellMillis = args.length > 1 ? Long.parseLong(args[1]) : 500;
+
+        // ================= CORE OPERATIONS =================
+        ConcurrentAppendList<String> list = new ConcurrentAppendList<>();
+        list.add("A");
+        list.add("B");
+        list.set(1, "C");
+        System.out.println("list: " + list + " get(0)=" + list.get(0) + " size=" + list.size()
+                + " contains(C)=" + list.contains("C"));
+
+        stressCheck();
+        benchmark(threads, cellMillis);
+    }
+
+    // =========================
+    // THE LIST
+    // =========================
+    /**
+     * Segment k holds 16 << k slots, so the segments never move and index → (segment, offset)
+     * is pure bit arithmetic. Appends: CAS-reserve index i, write slot i, then help move the
+     * published size over every consecutive written slot — no writer ever waits for another.
+     * Reads: acquire the published size, read the slot. null is stored as a marker so that
+     * "slot written" is simply "slot non-null". Remove is unsupported (append-mostly).
+     */
+    public static final class ConcurrentAppendList<E> extends AbstractList<E> implements RandomAccess {
+        private static final int FIRST_SHIFT = 4;                    // first segment: 16 slots
+        private static final int MAX_SIZE = Integer.MAX_VALUE - (1 << FIRST_SHIFT);
+        private static final VarHandle RESERVED, PUBLISHED, SEGMENT, SLOT;
+        private static final Object NULL = new Object();
+
+        static {
+            try {
+                MethodHandles.Lookup l = MethodHandles.lookup();
+                RESERVED = l.findVarHandle(ConcurrentAppendList.class, "reserved", int.class);
+                PUBLISHED = l.findVarHandle(ConcurrentAppendList.class, "published", int.class);
+                SEGMENT = MethodHandles.arrayElementVarHandle(Object[][].class);
+                SLOT = MethodHandles.arrayElementVarHandle(Object[].class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        // reserved: next index handed to a writer; published: every slot below it is written
+        private volatile int reserved;
+        private volatile int published;
+        private final Object[][] segments = new Object[32 - FIRST_SHIFT][];
+
+        @Override
+        public boolean add(E e) {
+            int index;
+            do {
+                index = reserved;
+                if (index == MAX_SIZE) throw new IllegalStateException("list full");
+            } while (!RESERVED.compareAndSet(this, index, index + 1));
+
+            int biased = index + (1 << FIRST_SHIFT);
+            int k = segmentOf(biased);
+            SLOT.setVolatile(segment(k), biased - (1 << (k + FIRST_SHIFT)), e == null ? NULL : e);
+            advancePublished();
+            return true;
+        }
+
+        /**
+         * Moves published over every written slot. If an earlier writer is still between reserve
+         * and write, this stops at its slot and that writer carries published on when it finishes.
+         * Slot write and slot read are both volatile so the two writers can't both miss each other.
+         */
+        private void advancePublished() {
+            int p = published;
+            while (p < reserved) {
+                int biased = p + (1 << FIRST_SHIFT);
+                int k = segmentOf(biased);
+                Object[] segment = (Object[]) SEGMENT.getVolatile(segments, k);
+                if (segment == null || SLOT.getVolatile(segment, biased - (1 << (k + FIRST_SHIFT))) == null) return;
+                int witness = (int) PUBLISHED.compareAndExchange(this, p, p + 1);
+                p = witness == p ? p + 1 : witness;
+            }
+        }
+
+        @Override
+        public E get(int index) {
+            Objects.checkIndex(index, (int) PUBLISHED.getAcquire(this));
+            int biased = index + (1 << FIRST_SHIFT);
+            int k = segmentOf(biased);
+            return unmask(SLOT.getAcquire(segments[k], biased - (1 << (k + FIRST_SHIFT))));
+        }
+
+        @Override
+        public E set(int index, E e) {
+            Objects.checkIndex(index, (int) PUBLISHED.getAcquire(this));
+            int biased = index + (1 << FIRST_SHIFT);
+            int k = segmentOf(biased);
+            return unmask(SLOT.getAndSetRelease(segments[k], biased - (1 << (k + FIRST_SHIFT)), e == null ? NULL : e));
+        }
+
+        /** Published size: every index below it is readable. */
+        @Override
+        public int size() {
+            return (int) PUBLISHED.getAcquire(this);
+        }
+
+        /** Weakly consistent: walks the size published when it was created, never throws CME. */
+        @Override
+        public Iterator<E> iterator() {
+            int limit = size();
+            return new Iterator<>() {
+                private int next;
+
+                @Override public boolean hasNext() { return next < limit; }
+
+                @Override
+                public E next() {
+                    if (next >= limit) throw new NoSuchElementException();
+                    return get(next++);
+                }
+            };
+        }
+
+        /** Segment by segment over a snapshot of the published size. */
+        @Override
+        public void forEach(Consumer<? super E> action) {
+            int remaining = size();
+            for (int k = 0; remaining > 0; k++) {
+                Object[] segment = segments[k];
+                int count = Math.min(remaining, segment.length);
+                for (int i = 0; i < count; i++) action.accept(unmask(SLOT.getAcquire(segment, i)));
+                remaining -= count;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <E> E unmask(Object slot) {
+            return slot == NULL ? null : (E) slot;
+        }
+
+        private static int segmentOf(int biased) {
+            return 31 - Integer.numberOfLeadingZeros(biased) - FIRST_SHIFT;
+        }
+
+        /** Installs segment k on first use; racing writers agree on one array via CAS. */
+        private Object[] segment(int k) {
+            Object[] segment = (Object[]) SEGMENT.getAcquire(segments, k);
+            if (segment != null) return segment;
+            Object[] fresh = new Object[1 << (k + FIRST_SHIFT)];
+            Object[] witness = (Object[]) SEGMENT.compareAndExchangeRelease(segments, k, null, fresh);
+            return witness == null ? fresh : witness;
+        }
+    }
+
+    // =========================
+    // STRESS CHECK
+    // =========================
+    /** Writers append distinct non-null values while readers scan: a null seen below size() = bug. */
+    private static void stressCheck() throws InterruptedException {
+        int writers = 4, perWriter = 250_000;
+        ConcurrentAppendList<Integer> list = new ConcurrentAppendList<>();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(writers);
+
+        List<Thread> all = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int base = w * perWriter;
+            all.add(new Thread(() -> {
+                for (int i = 0; i < perWriter; i++) list.add(base + i);
+                done.countDown();
+            }));
+        }
+        for (int r = 0; r < 2; r++) {
+            all.add(new Thread(() -> {
+                while (writing.get()) {
+                    int size = list.size();
+                    for (int i = 0; i < size; i++) if (list.get(i) == null) failures.incrementAndGet();
+                    int[] seen = {0};
+                    list.forEach(v -> seen[0]++);
+                    if (seen[0] < size) failures.incrementAndGet();
+                }
+            }));
+        }
+        all.forEach(Thread::start);
+        done.await();
+        writing.set(false);
+        for (Thread t : all) t.join();
+
+        BitSet values = new BitSet();
+        for (Integer v : list) values.set(v);
+        boolean ok = failures.get() == 0 && list.size() == writers * perWriter
+                && values.cardinality() == writers * perWriter;
+        System.out.printf("stress: %,d appends by %d writers, 2 lock-free readers → %s%n",
+                list.size(), writers, ok ? "OK" : "FAILED (" + failures.get() + " torn reads)");
+        if (!ok) throw new AssertionError("ConcurrentAppendList stress check failed");
+    }
+
+    // =========================
+    // BENCHMARK
+    // =========================
+    static final Object ELEMENT = new Object(); // one shared element: measure the list, not allocation
+    static volatile Object sink;
+
+    private static void benchmark(int threads, long cellMillis) throws InterruptedException {
+        Map<String, Supplier<List<Object>>> lists = new LinkedHashMap<>();
+        lists.put("Vector", Vector::new);
+        lists.put("synchronizedList", () -> Collections.synchronizedList(new ArrayList<>()));
+        lists.put("CopyOnWriteArrayList", CopyOnWriteArrayList::new);
+        lists.put("ConcurrentAppendList", ConcurrentAppendList::new);
+        int[] readPercents = {99, 90, 50};
+
+        System.out.printf("%n%d threads, %d ms per cell, 100,000 preloaded elements — million ops/s%n", threads, cellMillis);
+        System.out.print("list                 ");
+        for (int p : readPercents) System.out.printf("| %2d%% get / %2d%% add ", p, 100 - p);
+        System.out.println();
+
+        for (Map.Entry<String, Supplier<List<Object>>> entry : lists.entrySet()) {
+            System.out.printf("%-21s", entry.getKey());
+            for (int readPercent : readPercents) {
+                List<Object> list = entry.getValue().get();
+                list.addAll(Collections.nCopies(100_000, ELEMENT));
+                run(list, threads, readPercent, cellMillis / 5);  // warm-up
+                double opsPerSecond = run(list, threads, readPercent, cellMillis);
+                System.out.printf("| %18.2f ", opsPerSecond / 1e6);
+            }
+            System.out.println();
+        }
+    }
+
+    private static double run(List<Object> list, int threads, int readPercent, long millis) throws InterruptedException {
+        LongAdder ops = new LongAdder();
+        long deadline = System.nanoTime() + millis * 1_000_000;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long count = 0;
+                Object last = null;
+                while ((count & 255) != 0 || System.nanoTime() < deadline) {
+                    if (random.nextInt(100) < readPercent) last = list.get(random.nextInt(list.size()));
+                    else list.add(ELEMENT);
+                    count++;
+                }
+                sink = last;
+                ops.add(count);
+            });
+        }
+        long t0 = System.nanoTime();
+        for (Thread w : workers) w.start();
+        for (Thread w : workers) w.join();
+        return ops.sum() * 1e9 / (System.nanoTime() - t0);
+    }
+}
+
+/*
+================================================================================
+CONCURRENT APPEND-MOSTLY LIST – ENTERPRISE & JVM LEVEL DEEP DIVE
+================================================================================
+
+WHAT:
+-----
+A thread-safe List for "many readers, some appenders":
+• add    → CAS-reserve an index, write the slot, publish the size
+• get    → one acquire read of the size + one slot read, no lock
+• iterate → snapshot of the published size, no lock, no CME
+
+WHY IT EXISTS:
+--------------
+Vector / Collections.synchronizedList:
+• EVERY get/size/iterator call takes the monitor → readers queue behind each other
+  and behind writers (Java_4_Stack inherits this through Vector)
+CopyOnWriteArrayList:
+• Lock-free reads ✔, but every add copies the whole array → O(n) per append
+
+INTERNAL WORKING:
+-----------------
+Segments: 16, 32, 64, 128 ... slots (segment k = 16 << k)
+• index i → b = i + 16 → segment = log2(b) − 4, offset = b − (16 << segment)
+• Segments are never copied or moved → no resize pause, no stale-array problem
+Append:
+1. CAS reserved: i → i + 1                 (the slot is now owned by this writer)
+2. Install segment via CAS if first use    (losers reuse the winner's array)
+3. Volatile write of slot i
+4. Help: while slot[published] is written → CAS published + 1   (nobody waits)
+   A stalled writer holds published at its slot; when it finishes, IT moves published
+   over its own slot and every later slot already written
+Read:
+• getAcquire(published) → every slot below it was written before the CAS (happens-before)
+• null elements are stored as a private NULL marker: empty slot = "not written yet"
+
+DEFAULT VALUES:
+---------------
+First segment: 16 slots
+Max size: Integer.MAX_VALUE − 16
+Nulls: ✔ allowed
+remove / add(index, e): ❌ UnsupportedOperationException
+
+TIME COMPLEXITY:
+----------------
+add → O(1) (no copying, ever)
+get / set → O(1), lock-free
+size → O(1), one acquire load
+iteration → O(n), weakly consistent
+
+CORE FEATURES:
+--------------
+✔ Readers never block and never block writers
+✔ Indices are handed out in CAS order, with no gaps
+✔ set(i, e) is an atomic release write of one slot
+✔ add never blocks, even if an earlier writer is descheduled mid-append
+❌ …but then size() lags: add() may return before size() covers its own element
+
+ENTERPRISE PITFALLS:
+--------------------
+❌ Using it where removals are needed → wrong structure (use ConcurrentLinkedQueue / COW)
+❌ Writer thread killed between reserve and write → size() never advances past its slot
+❌ Assuming iterator sees appends made after it was created
+
+REAL SYSTEM USAGE:
+------------------
+• Append-only event logs / in-memory journals (Chronicle, Aeron log buffers)
+• Paged arrays that grow without copying (Lucene / Elasticsearch BigArrays)
+• Registries that only grow (metrics, listeners, interned IDs)
+
+INTERVIEW ONE-LINER:
+-------------------
+"Reserve with CAS, write, help publish the size — readers acquire the size and never
+need a lock, writers never wait for each other."
+
+================================================================================
+*/
@@ -184,6 +184,7 @@ WHY LINKEDLIST IS RARE IN PRODUCTION:
 
 In modern systems:
 • CPU cache efficiency matters more than theoretical O(1)
+• Same Deque API with array nodes → Java_16_UnrolledLinkedList (~5 bytes/elem instead of ~24)
 
 ------------------------------------------------------------------------------------------------------
 WHEN LINKEDLIST *IS* A GOOD CHOICE:
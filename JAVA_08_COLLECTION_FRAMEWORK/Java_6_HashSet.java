@@ -209,6 +209,7 @@ public class Java_6_HashSet{
 // • HashSet consumes MORE memory than ArrayList
 // • HashMap buckets + Node objects
 // • Treeification happens when collisions exceed threshold (Java 8+)
+// • Open addressing without Nodes → Java_18_RobinHoodHashSet (~10–19 bytes/entry instead of ~42)
 
 // -------------------------------------------------------------------------------------------------------------
 // THREAD SAFETY:
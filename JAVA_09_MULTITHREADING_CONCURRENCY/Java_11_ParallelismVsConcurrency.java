@@ -1,10 +1,165 @@
 package JAVA_09_MULTITHREADING_CONCURRENCY;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Scaling benchmark: CPU-bound vs memory-bound vs blocking-I/O work on
+ * platform pools, ForkJoinPool and virtual threads at 1..N workers.
+ * Prints throughput, the fitted Amdahl serial fraction and where scaling stops.
+ */
 public class Java_11_ParallelismVsConcurrency {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
         System.out.println("Parallelism: multiple tasks executing simultaneously on multiple cores");
         System.out.println("Concurrency: multiple tasks making progress independently, may share CPU time");
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        int maxWorkers = args.length > 0 ? Integer.parseInt(args[0]) : Math.max(64, cores * 4);
+        int tasks = args.length > 1 ? Integer.parseInt(args[1]) : 512;
+        System.out.printf("%ncores=%d, %d tasks per run, workers 1..%d%n", cores, tasks, maxWorkers);
+
+        for (Workload workload : Workload.values()) {
+            System.out.println("\n=== " + workload + " ===");
+            for (Runner runner : Runner.values()) {
+                report(workload, runner, scale(workload, runner, tasks, maxWorkers));
+            }
+        }
+    }
+
+    // =========================
+    // WORKLOADS (one task each)
+    // =========================
+    enum Workload {
+        CPU_BOUND {          // pure ALU work, fits in registers/L1
+            @Override long run() {
+                long x = ThreadLocalRandom.current().nextLong();
+                for (int i = 0; i < 2_000_000; i++) x = x * 6364136223846793005L + 1442695040888963407L;
+                return x;
+            }
+        },
+        MEMORY_BOUND {       // random reads over 64 MB: every access is a likely cache miss
+            @Override long run() {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                long sum = 0;
+                for (int i = 0; i < 200_000; i++) sum += BIG[rnd.nextInt(BIG.length)];
+                return sum;
+            }
+        },
+        BLOCKING_IO {        // waiting, not computing (DB / HTTP call stand-in)
+            @Override long run() throws InterruptedException {
+                Thread.sleep(5);
+                return 1;
+            }
+        };
+
+        static final long[] BIG = new long[8 * 1024 * 1024];
+
+        abstract long run() throws Exception;
+    }
+
+    // =========================
+    // RUNNERS ("k workers" on each model)
+    // =========================
+    enum Runner {
+        PLATFORM_POOL {
+            @Override ExecutorService create(int workers) { return Executors.newFixedThreadPool(workers); }
+        },
+        FORK_JOIN {
+            @Override ExecutorService create(int workers) { return new ForkJoinPool(workers); }
+        },
+        VIRTUAL_THREADS { // one virtual thread per task, at most k running (never pool them)
+            @Override ExecutorService create(int workers) { return Executors.newVirtualThreadPerTaskExecutor(); }
+
+            @Override Callable<Long> limit(Callable<Long> task, Semaphore permits) {
+                return () -> {
+                    permits.acquire();
+                    try {
+                        return task.call();
+                    } finally {
+                        permits.release();
+                    }
+                };
+            }
+        };
+
+        abstract ExecutorService create(int workers);
+
+        /** Caps concurrency at k for executors that don't (pools already do). */
+        Callable<Long> limit(Callable<Long> task, Semaphore permits) {
+            return task;
+        }
+    }
+
+    record Point(int workers, double tasksPerSec) {}
+
+    static long sink;
+
+    private static List<Point> scale(Workload workload, Runner runner, int tasks, int maxWorkers) throws Exception {
+        List<Point> points = new ArrayList<>();
+        runOnce(workload, runner, 1, tasks / 4); // warm-up (JIT + page-in of BIG)
+        for (int k = 1; k <= maxWorkers; k <<= 1) {
+            points.add(new Point(k, tasks / runOnce(workload, runner, k, tasks)));
+        }
+        return points;
+    }
+
+    /** Seconds to push {@code tasks} tasks through {@code workers} workers. */
+    private static double runOnce(Workload workload, Runner runner, int workers, int tasks) throws Exception {
+        List<Callable<Long>> batch = new ArrayList<>(tasks);
+        Semaphore permits = new Semaphore(workers);
+        for (int i = 0; i < tasks; i++) batch.add(runner.limit(workload::run, permits));
+        long begin = System.nanoTime();
+        try (ExecutorService executor = runner.create(workers)) {
+            for (Future<Long> f : executor.invokeAll(batch)) sink += f.get();
+        }
+        return (System.nanoTime() - begin) / 1e9;
+    }
+
+    // =========================
+    // ANALYSIS
+    // =========================
+    /**
+     * Amdahl: speedup(k) = 1 / (s + (1 - s) / k)  =>  1/S - 1/k = s * (1 - 1/k).
+     * Least-squares fit of s through the origin over 1 < k <= cores: beyond the core count
+     * throughput flattens for hardware reasons, which the fit would misread as serial work.
+     * NaN when there is no such k (single core).
+     */
+    static double amdahlSerialFraction(List<Point> points, int cores) {
+        double base = points.get(0).tasksPerSec();
+        double num = 0, den = 0;
+        for (Point p : points) {
+            if (p.workers() == 1 || p.workers() > cores) continue;
+            double x = 1 - 1.0 / p.workers();
+            double y = base / p.tasksPerSec() - 1.0 / p.workers();
+            num += x * y;
+            den += x * x;
+        }
+        return den == 0 ? Double.NaN : Math.max(0, Math.min(1, num / den));
+    }
+
+    /** First worker count after which doubling the workers gains less than 10%. */
+    static int scalingStopsAt(List<Point> points) {
+        for (int i = 1; i < points.size(); i++) {
+            if (points.get(i).tasksPerSec() < points.get(i - 1).tasksPerSec() * 1.10) return points.get(i - 1).workers();
+        }
+        return points.get(points.size() - 1).workers();
+    }
+
+    private static void report(Workload workload, Runner runner, List<Point> points) {
+        StringBuilder row = new StringBuilder(String.format("%-16s", runner));
+        for (Point p : points) row.append(String.format(" k=%d:%.0f/s", p.workers(), p.tasksPerSec()));
+        System.out.println(row);
+        double s = amdahlSerialFraction(points, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-16s serial fraction ~ %s, scaling stops at k=%d%n", "",
+                Double.isNaN(s) ? "n/a (needs 2+ cores)" : String.format("%.3f", s), scalingStopsAt(points));
     }
 }
 
@@ -100,6 +255,18 @@ I/O-bound → CONCURRENCY
 • Many threads (virtual preferred)
 • Network / DB / File operations
 
+MEASURING IT (main above):
+--------------------------
+• Same task count, k = 1, 2, 4 ... workers, on platform pool / ForkJoin / virtual threads.
+  Virtual threads are never pooled: one per task, Semaphore(k) caps how many run.
+• Amdahl fit over k = 2..cores: 1/S(k) − 1/k = s·(1 − 1/k) → least-squares s = serial fraction.
+  s ≈ 0 → embarrassingly parallel; s = 0.1 → speedup can never exceed 10×.
+• "Scaling stops" = first k where doubling workers gains < 10%.
+  CPU_BOUND     → stops near core count
+  MEMORY_BOUND  → stops earlier: memory bandwidth saturates before cores do
+  BLOCKING_IO   → keeps scaling far past core count (threads wait, they don't compute)
+• Size each service's pool from ITS curve, not from a formula.
+
 
 INTERVIEW QUESTIONS + ANSWERS:
 ------------------------------
@@ -0,0 +1,291 @@
+package JAVA_09_MULTITHREADING_CONCURRENCY;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-account ledger: the ATM example from Java_1_ThreadLifecycle_ATM_System scaled to many accounts.
+ * Balance changes are CAS-based; only a withdrawal that lacks funds parks, and it parks on its OWN account.
+ */
+public class Java_13_AccountLedger {
+
+    public static void main(String[] args) throws InterruptedException {
+        int accounts = 64;
+        int couples = 1000;        // 1000 husbands + 1000 wives = 2000 threads
+        int opsPerThread = 200;
+
+        // Warm-up so both designs run on JIT-compiled code
+        runLoad(new MonitorLedger(accounts, 1000), accounts, 100, 50);
+        runLoad(new CasLedger(accounts, 1000), accounts, 100, 50);
+
+        Result monitor = runLoad(new MonitorLedger(accounts, 1000), accounts, couples, opsPerThread);
+        Result cas = runLoad(new CasLedger(accounts, 1000), accounts, couples, opsPerThread);
+
+        System.out.println("Design        | ops/sec      | p99 withdraw wait (us) | total balance");
+        System.out.println("--------------+--------------+------------------------+--------------");
+        print("Single monitor", monitor);
+        print("CAS ledger    ", cas);
+    }
+
+    // =========================
+    // Common contract
+    // =========================
+    interface Ledger {
+        /** Blocks until the account has at least {@code amount}, then debits it. */
+        void withdraw(int account, long amount) throws InterruptedException;
+
+        void deposit(int account, long amount);
+
+        long balance(int account);
+
+        int size();
+    }
+
+    // =========================
+    // Current design: ONE monitor for every customer
+    // =========================
+    static class MonitorLedger implements Ledger {
+        private final Object atmMachine = new Object();
+        private final long[] balances;
+
+        MonitorLedger(int accounts, long initialBalance) {
+            balances = new long[accounts];
+            Arrays.fill(balances, initialBalance);
+        }
+
+        @Override
+        public void withdraw(int account, long amount) throws InterruptedException {
+            synchronized (atmMachine) {
+                while (balances[account] < amount) {
+                    atmMachine.wait(); // every waiter of every account sits in the same wait set
+                }
+                balances[account] -= amount;
+            }
+        }
+
+        @Override
+        public void deposit(int account, long amount) {
+            synchronized (atmMachine) {
+                balances[account] += amount;
+                atmMachine.notifyAll(); // notify() could wake a waiter of another account -> lost wake-up
+            }
+        }
+
+        @Override
+        public long balance(int account) {
+            synchronized (atmMachine) {
+                return balances[account];
+            }
+        }
+
+        @Override
+        public int size() {
+            return balances.length;
+        }
+    }
+
+    // =========================
+    // New design: CAS balance + per-account Condition
+    // =========================
+    static class CasLedger implements Ledger {
+        private final Account[] accounts;
+
+        CasLedger(int accounts, long initialBalance) {
+            this.accounts = new Account[accounts];
+            for (int i = 0; i < accounts; i++) this.accounts[i] = new Account(initialBalance);
+        }
+
+        @Override
+        public void withdraw(int account, long amount) throws InterruptedException {
+            accounts[account].withdraw(amount);
+        }
+
+        @Override
+        public void deposit(int account, long amount) {
+            accounts[account].deposit(amount);
+        }
+
+        @Override
+        public long balance(int account) {
+            return accounts[account].balance.get();
+        }
+
+        @Override
+        public int size() {
+            return accounts.length;
+        }
+    }
+
+    static final class Account {
+        final AtomicLong balance;
+        // Lock + Condition are touched ONLY when a withdrawal has to wait
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition fundsAvailable = lock.newCondition();
+        private final AtomicInteger waiters = new AtomicInteger();
+
+        Account(long initialBalance) {
+            balance = new AtomicLong(initialBalance);
+        }
+
+        boolean tryWithdraw(long amount) {
+            long current;
+            do {
+                current = balance.get();
+                if (current < amount) return false;
+            } while (!balance.compareAndSet(current, current - amount));
+            return true;
+        }
+
+        void withdraw(long amount) throws InterruptedException {
+            if (tryWithdraw(amount)) return; // fast path: no lock at all
+
+            lock.lock();
+            waiters.incrementAndGet();
+            try {
+                // Re-check AFTER publishing ourselves as a waiter: a deposit that missed
+                // the waiter count has already landed in the balance we read here.
+                while (!tryWithdraw(amount)) {
+                    fundsAvailable.await();
+                }
+            } finally {
+                waiters.decrementAndGet();
+                lock.unlock();
+            }
+        }
+
+        void deposit(long amount) {
+            balance.addAndGet(amount);
+            if (waiters.get() > 0) { // deposits without waiters never touch the lock
+                lock.lock();
+                try {
+                    fundsAvailable.signalAll(); // amounts differ, so let every waiter re-check
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    // =========================
+    // Load driver: husband/wife pairs per account
+    // =========================
+    record Result(double opsPerSec, double p99WaitMicros, long totalBalance, long expectedBalance) {}
+
+    static Result runLoad(Ledger ledger, int accounts, int couples, int opsPerThread) throws InterruptedException {
+        long expected = 0;
+        for (int a = 0; a < accounts; a++) expected += ledger.balance(a);
+
+        long[][] waits = new long[couples][];
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[couples * 2];
+
+        for (int c = 0; c < couples; c++) {
+            int account = c % accounts;
+            int slot = c;
+            threads[2 * c] = new Thread(() -> {
+                long[] samples = new long[opsPerThread];
+                await(start);
+                try {
+                    for (int i = 0; i < opsPerThread; i++) {
+                        long t0 = System.nanoTime();
+                        ledger.withdraw(account, 5000);
+                        samples[i] = System.nanoTime() - t0;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                waits[slot] = samples;
+            }, "Husband-" + c);
+            threads[2 * c + 1] = new Thread(() -> {
+                await(start);
+                for (int i = 0; i < opsPerThread; i++) {
+                    ledger.deposit(account, 5000);
+                }
+            }, "Wife-" + c);
+        }
+
+        for (Thread t : threads) t.start();
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread t : threads) t.join();
+        long elapsed = System.nanoTime() - begin;
+
+        long[] all = new long[couples * opsPerThread];
+        for (int c = 0; c < couples; c++) System.arraycopy(waits[c], 0, all, c * opsPerThread, opsPerThread);
+        Arrays.sort(all);
+        long p99 = all[(int) (all.length * 0.99) - 1];
+
+        long total = 0;
+        for (int a = 0; a < accounts; a++) total += ledger.balance(a);
+
+        double ops = (double) threads.length * opsPerThread / (elapsed / 1e9);
+        return new Result(ops, p99 / 1e3, total, expected);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void print(String name, Result r) {
+        System.out.printf("%s | %,12.0f | %,22.1f | %d (expected %d)%n",
+                name, r.opsPerSec(), r.p99WaitMicros(), r.totalBalance(), r.expectedBalance());
+    }
+}
+
+/*
+================================================================================
+PER-ACCOUNT LEDGER – DEEP DIVE
+================================================================================
+
+WHAT:
+-----
+A ledger of many accounts where:
+• Balance updates are lock-free (AtomicLong CAS loop)
+• A withdrawal that lacks funds parks on ITS OWN account's Condition
+• A deposit wakes ONLY the waiters of that account
+
+WHY IT EXISTS:
+--------------
+• Java_1 uses ONE `atmMachine` monitor → every customer of every account is serialized.
+• With many accounts, wait()/notify() on one monitor wakes the wrong threads:
+  notify() may wake a waiter of another account (lost wake-up), notifyAll() wakes ALL of them.
+
+INTERNAL WORKING:
+-----------------
+• Fast path: read balance → if enough, compareAndSet(balance, balance - amount).
+• Slow path: lock → waiters++ → re-check → await() on the account's Condition.
+• Deposit: addAndGet() → if waiters > 0, lock + signalAll().
+• No lost wake-up: the waiter re-checks AFTER incrementing `waiters`,
+  the depositor reads `waiters` AFTER adding to the balance → one of them always sees the other.
+
+TIME COMPLEXITY / PERFORMANCE:
+-----------------------------
+• Withdraw / deposit with funds: O(1), no lock, no context switch.
+• Contention is per account, not global → throughput scales with account count.
+• Wake-ups are targeted → no thundering herd across accounts.
+
+ENTERPRISE PITFALLS:
+-------------------
+❌ Checking `waiters` BEFORE updating the balance → lost wake-up
+❌ signal() when amounts differ → the woken thread may still lack funds while another could proceed
+❌ Transfers between two accounts need ordered locking (see Java_5_DeadlockDemo)
+
+REAL SYSTEM USAGE:
+-----------------
+✔ Wallet / prepaid balances
+✔ Inventory reservation per SKU
+✔ Rate-limit buckets per tenant
+
+INTERVIEW ONE-LINER:
+-------------------
+"Shard the monitor by account and make the common path a CAS — threads only block on the account they actually need."
+================================================================================
+*/
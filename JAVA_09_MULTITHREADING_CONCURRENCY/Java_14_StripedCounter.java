@@ -0,0 +1,191 @@
+package JAVA_09_MULTITHREADING_CONCURRENCY;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Striped, cache-line-padded counter (LongAdder idea) + a throughput harness that
+ * compares it against the counters used in Java_3, Java_4 and Java_7.
+ */
+public class Java_14_StripedCounter {
+
+    public static void main(String[] args) throws InterruptedException {
+        int callsPerThread = args.length > 0 ? Integer.parseInt(args[0]) : 2_000; // x1000 increments each
+        int[] threadCounts = {1, 2, 4, 8, 16, 32, 64};
+
+        // Each "call" = 1000 increments, same unit as Java_3_Synchronization.increment()
+        Java_3_Synchronization sync = new Java_3_Synchronization();
+        Java_4_ExplicitLocks locked = new Java_4_ExplicitLocks();
+        AtomicInteger atomic = new AtomicInteger();
+        StripedCounter striped = new StripedCounter();
+
+        Runnable syncCall = sync::increment;
+        Runnable lockCall = locked::increment;
+        Runnable atomicCall = () -> { for (int i = 0; i < 1000; i++) atomic.getAndIncrement(); };
+        Runnable stripedCall = () -> { for (int i = 0; i < 1000; i++) striped.increment(); };
+
+        // Warm-up: let C2 compile every variant before measuring
+        for (Runnable r : new Runnable[]{syncCall, lockCall, atomicCall, stripedCall}) measure(r, 4, callsPerThread);
+
+        System.out.println("Million increments/sec");
+        System.out.println("threads | synchronized | ReentrantLock | AtomicInteger | StripedCounter");
+        for (int threads : threadCounts) {
+            System.out.printf("%7d | %12.1f | %13.1f | %13.1f | %14.1f%n",
+                    threads,
+                    measure(syncCall, threads, callsPerThread),
+                    measure(lockCall, threads, callsPerThread),
+                    measure(atomicCall, threads, callsPerThread),
+                    measure(stripedCall, threads, callsPerThread));
+        }
+
+        StripedCounter check = new StripedCounter();
+        measure(() -> { for (int i = 0; i < 1000; i++) check.increment(); }, 8, 100);
+        System.out.println("Sanity sum (expect 800000): " + check.sum());
+    }
+
+    // =========================
+    // STRIPED COUNTER
+    // =========================
+    public static final class StripedCounter {
+
+        private static final int STRIPES = stripesFor(Runtime.getRuntime().availableProcessors());
+        private static final VarHandle VALUE;
+
+        static {
+            try {
+                VALUE = MethodHandles.lookup().findVarHandle(Cell.class, "value", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private final Cell[] cells = new Cell[STRIPES];
+
+        public StripedCounter() {
+            for (int i = 0; i < STRIPES; i++) cells[i] = new Cell();
+        }
+
+        /** Adds one. Threads hash to different cells, so they rarely share a cache line. */
+        public void increment() {
+            add(1);
+        }
+
+        public void add(long x) {
+            Cell c = cells[index()];
+            VALUE.getAndAdd(c, x); // LOCK XADD: never fails, contention only within one stripe
+        }
+
+        /** Not an atomic snapshot: concurrent increments may or may not be included. */
+        public long sum() {
+            long sum = 0;
+            for (Cell c : cells) sum += (long) VALUE.getVolatile(c);
+            return sum;
+        }
+
+        public void reset() {
+            for (Cell c : cells) VALUE.setVolatile(c, 0L);
+        }
+
+        private static int index() {
+            long id = Thread.currentThread().threadId();
+            int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9; // Fibonacci hashing spreads sequential ids
+            return (h ^ (h >>> 16)) & (STRIPES - 1);
+        }
+
+        private static int stripesFor(int cpus) {
+            int n = Integer.highestOneBit(Math.max(1, cpus) * 2 - 1) << 1; // next power of two >= 2*cpus
+            return Math.max(n, 2);
+        }
+
+        // 7 longs before and after -> value sits alone on a 64-byte line (128 with adjacent-line prefetch)
+        @SuppressWarnings("unused")
+        static final class Cell {
+            long p01, p02, p03, p04, p05, p06, p07;
+            volatile long value;
+            long p11, p12, p13, p14, p15, p16, p17;
+        }
+    }
+
+    // =========================
+    // HARNESS
+    // =========================
+    private static double measure(Runnable call, int threads, int callsPerThread) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < callsPerThread; i++) call.run();
+            });
+            workers[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread w : workers) w.join();
+        long elapsed = System.nanoTime() - begin;
+        return (double) threads * callsPerThread * 1000 / (elapsed / 1e3); // per microsecond == million/sec
+    }
+}
+
+/*
+================================================================================
+STRIPED COUNTER – DEEP DIVE
+================================================================================
+
+WHAT:
+-----
+A counter split into N independent cells ("stripes").
+increment() touches ONE cell; sum() adds all cells.
+
+WHY IT EXISTS:
+--------------
+• synchronized / ReentrantLock: every increment fights for ONE lock.
+• AtomicInteger: lock-free, but every CAS hits ONE cache line → line ping-pongs between cores.
+• Striping spreads writers over many cache lines → near-linear scaling for write-heavy counters.
+
+INTERNAL WORKING:
+-----------------
+• Cells = next power of two ≥ 2 × CPUs.
+• Thread id is Fibonacci-hashed to a cell index.
+• Each cell is padded with 7 longs on both sides → no FALSE SHARING between cells.
+• getAndAdd (LOCK XADD on x86) never retries, unlike a CAS loop.
+
+TIME COMPLEXITY / PERFORMANCE:
+-----------------------------
+• increment(): O(1)
+• sum(): O(stripes) → cheap to write, more expensive to read
+• Memory: ~128 bytes per stripe
+
+ENTERPRISE PITFALLS:
+-------------------
+❌ Using it for IDs / sequence numbers → sum() is not an atomic snapshot
+❌ Reading sum() in a hot loop → scans every stripe
+❌ Removing the padding → cells share lines and it degrades to AtomicLong
+
+REAL SYSTEM USAGE:
+-----------------
+✔ Request / error counters in metrics libraries
+✔ Statistics in caches (hits / misses)
+✔ JDK's own LongAdder / Striped64
+
+HOW TO READ THE HARNESS:
+------------------------
+• Run: java JAVA_09_MULTITHREADING_CONCURRENCY.Java_14_StripedCounter [callsPerThread]
+• Each row = same total work per thread, 1..64 threads.
+• Java_3 / Java_4 take the lock ONCE per 1000 increments, so the JIT folds their loop
+  into `counter += 1000` → those columns measure lock hand-off, not per-increment cost.
+  A metrics counter is hit once per event, which is what the Atomic / Striped columns show.
+• Size counters from the column that stays flat as threads grow.
+
+INTERVIEW ONE-LINER:
+-------------------
+"When many threads write and few read, split the hot variable into padded stripes and sum on read."
+================================================================================
+*/
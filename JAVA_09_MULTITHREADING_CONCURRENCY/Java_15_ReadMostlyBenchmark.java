@@ -0,0 +1,93 @@
+package JAVA_09_MULTITHREADING_CONCURRENCY;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Read-mostly benchmark for the three read modes of Java_4_ExplicitLocks:
+ * ReentrantLock vs ReentrantReadWriteLock vs StampedLock optimistic read.
+ */
+public class Java_15_ReadMostlyBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int opsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 500_000;
+        int[] readsPerWrite = {100, 50, 10, 4, 1};
+
+        // Warm-up every mode
+        for (Java_4_ExplicitLocks.ReadMode mode : Java_4_ExplicitLocks.ReadMode.values()) {
+            run(mode, threads, opsPerThread / 10, 10);
+        }
+
+        System.out.println("Million ops/sec, " + threads + " threads");
+        System.out.println("read:write | ReentrantLock | ReadWriteLock | StampedLock (optimistic)");
+        for (int ratio : readsPerWrite) {
+            System.out.printf("%6d:1   | %13.2f | %13.2f | %13.2f%n",
+                    ratio,
+                    run(Java_4_ExplicitLocks.ReadMode.LOCK, threads, opsPerThread, ratio),
+                    run(Java_4_ExplicitLocks.ReadMode.RW_LOCK, threads, opsPerThread, ratio),
+                    run(Java_4_ExplicitLocks.ReadMode.STAMPED, threads, opsPerThread, ratio));
+        }
+    }
+
+    private static double run(Java_4_ExplicitLocks.ReadMode mode, int threads, int opsPerThread, int readsPerWrite)
+            throws InterruptedException {
+        Java_4_ExplicitLocks store = new Java_4_ExplicitLocks(mode);
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        long[] sinks = new long[threads]; // keeps reads from being dead-code eliminated
+
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long sink = 0;
+                for (int i = 0; i < opsPerThread; i++) {
+                    if (i % (readsPerWrite + 1) == 0) store.addToCounter(1);
+                    else sink += store.readCounter();
+                }
+                sinks[id] = sink;
+            });
+            workers[t].start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread w : workers) w.join();
+        long elapsed = System.nanoTime() - begin;
+        return (double) threads * opsPerThread / (elapsed / 1e3);
+    }
+}
+
+/*
+================================================================================
+READ-MOSTLY LOCKING – BENCHMARK NOTES
+================================================================================
+
+WHAT IS MEASURED:
+-----------------
+• N threads, each doing reads and writes on ONE shared counter.
+• Ratio 100:1 → 1 write after every 100 reads ... 1:1 → alternate.
+• Same Java_4_ExplicitLocks store, only the ReadMode changes.
+
+EXPECTED SHAPE:
+---------------
+• ReentrantLock: readers exclude each other → flat, lowest at high read ratios.
+• ReadWriteLock: readers run in parallel, but every readLock() CASes the shared state
+  → cache-line ping-pong limits scaling.
+• StampedLock optimistic: reads do NOT write shared memory → best at 100:1;
+  advantage shrinks towards 1:1 as validate() fails and falls back to readLock().
+
+HOW TO RUN:
+-----------
+java JAVA_09_MULTITHREADING_CONCURRENCY.Java_15_ReadMostlyBenchmark [threads] [opsPerThread]
+
+INTERVIEW ONE-LINER:
+-------------------
+"A read lock is still a write to the lock word; optimistic reads make the common read path truly read-only."
+================================================================================
+*/
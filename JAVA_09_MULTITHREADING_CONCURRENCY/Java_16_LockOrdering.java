@@ -0,0 +1,330 @@
+package JAVA_09_MULTITHREADING_CONCURRENCY;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Deadlock-free multi-lock acquisition: the fix for Java_5_DeadlockDemo as a reusable utility.
+ * 1. Ordered mode  -> every thread takes locks in ONE global (identity-based) order.
+ * 2. tryLock mode  -> take all or nothing; on failure release everything and back off randomly.
+ * 3. Watchdog      -> samples ThreadMXBean.findDeadlockedThreads() for code that does neither.
+ */
+public class Java_16_LockOrdering {
+
+    @SuppressWarnings("try") // the watchdog is a scope guard: only its close() is needed
+    public static void main(String[] args) throws Exception {
+        int accounts = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int transfersPerThread = args.length > 2 ? Integer.parseInt(args[2]) : 200_000;
+
+        // Warm-up
+        for (Strategy s : Strategy.values()) runTransfers(s, accounts, threads, transfersPerThread / 10);
+
+        System.out.println("Transfers/sec, " + accounts + " accounts, " + threads + " threads");
+        for (Strategy s : Strategy.values()) {
+            System.out.printf("%-22s %,14.0f%n", s, runTransfers(s, accounts, threads, transfersPerThread));
+        }
+
+        // Without the utility: opposite-order locking deadlocks, the watchdog finds it and breaks it
+        System.out.println("\nNaive opposite-order transfers with watchdog:");
+        try (DeadlockWatchdog watchdog = new DeadlockWatchdog(100, TimeUnit.MILLISECONDS, DeadlockWatchdog::interruptAll)) {
+            naiveDeadlock();
+        }
+    }
+
+    // =========================
+    // LOCK SET UTILITY
+    // =========================
+    public static final class LockSet {
+
+        // Used only when two locks have the same identity hash (rare) -> breaks the tie globally
+        private static final Lock TIE_LOCK = new ReentrantLock();
+
+        private static final Comparator<Lock> GLOBAL_ORDER =
+                Comparator.comparingInt(System::identityHashCode);
+
+        private LockSet() {}
+
+        /** Blocks until all locks are held, always in the same global order. */
+        public static Held acquireOrdered(Lock... locks) {
+            Lock[] ordered = order(locks);
+            int taken = 0;
+            try {
+                for (Lock l : ordered) {
+                    l.lock();
+                    taken++;
+                }
+            } catch (RuntimeException | Error e) {
+                release(ordered, taken);
+                throw e;
+            }
+            return new Held(ordered);
+        }
+
+        /**
+         * All-or-nothing: tries every lock without blocking; if one is busy, releases the
+         * ones already taken and parks for a random, exponentially growing time.
+         * Never holds a lock while blocked on another.
+         */
+        public static Held acquireWithBackoff(long timeout, TimeUnit unit, Lock... locks)
+                throws TimeoutException, InterruptedException {
+            Lock[] ordered = order(locks);
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            long backoff = 1_000; // 1 us, doubles up to 1 ms
+
+            while (true) {
+                int taken = 0;
+                while (taken < ordered.length && ordered[taken].tryLock()) taken++;
+                if (taken == ordered.length) return new Held(ordered);
+                release(ordered, taken);
+
+                if (Thread.interrupted()) throw new InterruptedException();
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) throw new TimeoutException("Could not acquire " + ordered.length + " locks");
+
+                // Randomized so two threads that collided do not retry in lock-step
+                LockSupport.parkNanos(Math.min(remaining, ThreadLocalRandom.current().nextLong(backoff) + 1));
+                backoff = Math.min(backoff << 1, 1_000_000);
+            }
+        }
+
+        private static Lock[] order(Lock[] locks) {
+            Lock[] ordered = locks.clone();
+            Arrays.sort(ordered, GLOBAL_ORDER);
+            for (int i = 1; i < ordered.length; i++) {
+                if (ordered[i] != ordered[i - 1]
+                        && System.identityHashCode(ordered[i]) == System.identityHashCode(ordered[i - 1])) {
+                    // Hash collision: no natural order between them, so serialize through the tie lock
+                    Lock[] withTie = new Lock[ordered.length + 1];
+                    withTie[0] = TIE_LOCK;
+                    System.arraycopy(ordered, 0, withTie, 1, ordered.length);
+                    return withTie;
+                }
+            }
+            return ordered;
+        }
+
+        private static void release(Lock[] ordered, int taken) {
+            for (int i = taken - 1; i >= 0; i--) ordered[i].unlock();
+        }
+
+        /** Releases in reverse acquisition order; use with try-with-resources. */
+        public static final class Held implements AutoCloseable {
+            private final Lock[] locks;
+
+            private Held(Lock[] locks) {
+                this.locks = locks;
+            }
+
+            @Override
+            public void close() {
+                release(locks, locks.length);
+            }
+        }
+    }
+
+    // =========================
+    // DEADLOCK WATCHDOG
+    // =========================
+    public static final class DeadlockWatchdog implements AutoCloseable {
+
+        private final ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        private final ScheduledExecutorService sampler;
+
+        public DeadlockWatchdog(long interval, TimeUnit unit, Consumer<ThreadInfo[]> onDeadlock) {
+            sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "deadlock-watchdog");
+                t.setDaemon(true); // must never keep the JVM alive
+                return t;
+            });
+            // findDeadlockedThreads() needs a safepoint -> sample, don't poll in a tight loop
+            sampler.scheduleWithFixedDelay(() -> {
+                long[] ids = mx.findDeadlockedThreads(); // monitors AND j.u.c locks; null when none
+                if (ids != null) onDeadlock.accept(mx.getThreadInfo(ids, true, true));
+            }, interval, interval, unit);
+        }
+
+        /** Default reaction: report and interrupt (works for lockInterruptibly(), not for synchronized). */
+        public static void interruptAll(ThreadInfo[] infos) {
+            for (ThreadInfo info : infos) {
+                System.out.println("WATCHDOG: " + info.getThreadName() + " blocked on " + info.getLockName()
+                        + " held by " + info.getLockOwnerName());
+            }
+            for (Thread t : Thread.getAllStackTraces().keySet()) {
+                for (ThreadInfo info : infos) {
+                    if (t.threadId() == info.getThreadId()) t.interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            sampler.shutdownNow();
+        }
+    }
+
+    // =========================
+    // TWO-ACCOUNT TRANSFER WORKLOAD
+    // =========================
+    enum Strategy { GLOBAL_LOCK, ORDERED, TRY_LOCK_BACKOFF }
+
+    @SuppressWarnings("try") // Held is a scope guard: only its close() is needed
+    private static double runTransfers(Strategy strategy, int accountCount, int threads, int transfersPerThread)
+            throws InterruptedException {
+        long[] balances = new long[accountCount];
+        Arrays.fill(balances, 1_000_000);
+        Lock[] locks = new Lock[accountCount];
+        for (int i = 0; i < accountCount; i++) locks[i] = new ReentrantLock();
+        Lock global = new ReentrantLock(); // what you do today when "don't do that" is the only rule
+
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                try {
+                    start.await();
+                    for (int i = 0; i < transfersPerThread; i++) {
+                        int from = rnd.nextInt(accountCount);
+                        int to = (from + 1 + rnd.nextInt(accountCount - 1)) % accountCount;
+                        switch (strategy) {
+                            case GLOBAL_LOCK:
+                                global.lock();
+                                try {
+                                    move(balances, from, to);
+                                } finally {
+                                    global.unlock();
+                                }
+                                break;
+                            case ORDERED:
+                                try (LockSet.Held h = LockSet.acquireOrdered(locks[from], locks[to])) {
+                                    move(balances, from, to);
+                                }
+                                break;
+                            default:
+                                try (LockSet.Held h = LockSet.acquireWithBackoff(1, TimeUnit.SECONDS, locks[from], locks[to])) {
+                                    move(balances, from, to);
+                                }
+                        }
+                    }
+                } catch (InterruptedException | TimeoutException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            workers[t].start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread w : workers) w.join();
+        long elapsed = System.nanoTime() - begin;
+
+        long total = Arrays.stream(balances).sum();
+        if (total != 1_000_000L * accountCount) throw new IllegalStateException(strategy + " lost money: " + total);
+        return (double) threads * transfersPerThread / (elapsed / 1e9);
+    }
+
+    private static void move(long[] balances, int from, int to) {
+        balances[from] -= 1;
+        balances[to] += 1;
+    }
+
+    private static void naiveDeadlock() throws InterruptedException {
+        ReentrantLock a = new ReentrantLock();
+        ReentrantLock b = new ReentrantLock();
+        boolean[] completed = new boolean[2];
+        Thread t1 = new Thread(() -> completed[0] = naiveTransfer(a, b), "Transfer-A-to-B");
+        Thread t2 = new Thread(() -> completed[1] = naiveTransfer(b, a), "Transfer-B-to-A");
+        t1.start();
+        t2.start();
+        t1.join();
+        t2.join(); // join() makes the writes to completed[] visible here
+        // Interrupting every thread in the cycle usually aborts both, but one may win the race
+        // and finish once the other has released its first lock
+        System.out.printf("%s: %s, %s: %s -> no thread stuck.%n",
+                t1.getName(), completed[0] ? "completed" : "aborted",
+                t2.getName(), completed[1] ? "completed" : "aborted");
+    }
+
+    /** @return true if the transfer completed, false if the watchdog interrupted it */
+    private static boolean naiveTransfer(Lock first, Lock second) {
+        try {
+            first.lockInterruptibly();
+            try {
+                Thread.sleep(100); // widen the window, like sleep(200) in Java_5_DeadlockDemo
+                second.lockInterruptibly();
+                second.unlock();
+                return true;
+            } finally {
+                first.unlock();
+            }
+        } catch (InterruptedException e) {
+            System.out.println(Thread.currentThread().getName() + ": interrupted by watchdog, rolled back");
+            return false;
+        }
+    }
+}
+
+/*
+================================================================================
+LOCK ORDERING & DEADLOCK AVOIDANCE – DEEP DIVE
+================================================================================
+
+WHAT:
+-----
+A utility that acquires a SET of locks without deadlock:
+• acquireOrdered()      → blocking, global order by System.identityHashCode
+• acquireWithBackoff()  → tryLock all-or-nothing + randomized exponential backoff
+• DeadlockWatchdog      → periodic ThreadMXBean.findDeadlockedThreads()
+
+WHY IT EXISTS:
+--------------
+Deadlock needs ALL 4 Coffman conditions:
+1. Mutual exclusion  2. Hold and wait  3. No preemption  4. Circular wait
+• Ordered mode breaks CIRCULAR WAIT  (everyone climbs the same ladder).
+• tryLock mode breaks HOLD AND WAIT  (never blocks while holding another lock).
+• The global lock also works, but serializes every transfer in the system.
+
+INTERNAL WORKING:
+-----------------
+• Identity hash gives a stable, JVM-wide order with no extra fields.
+• Two different locks with the SAME hash have no order → a global TIE_LOCK is taken first
+  (same trick as "Java Concurrency in Practice", listing 10.3).
+• Backoff: random(0, b) with b = 1us → 1ms; randomness prevents livelock
+  (two threads retrying in perfect lock-step forever).
+• Watchdog: daemon thread, scheduleWithFixedDelay; the detector walks the
+  thread-owner graph at a safepoint → cost proportional to thread count,
+  paid once per interval (e.g. 1–10 s in production).
+
+TIME COMPLEXITY / PERFORMANCE:
+-----------------------------
+• acquireOrdered(): O(n log n) sort for n locks (n = 2 → trivial)
+• Independent transfers run in parallel, unlike the global lock.
+• tryLock mode wastes work under heavy contention (retries), but can never deadlock.
+
+ENTERPRISE PITFALLS:
+-------------------
+❌ Ordering by account id in one place and by hash in another → circular wait again
+❌ Backoff without randomness → livelock
+❌ Interrupting a thread blocked in `synchronized` does nothing → use lockInterruptibly()
+❌ Running findDeadlockedThreads() every millisecond → safepoint storms
+
+INTERVIEW ONE-LINER:
+-------------------
+"Break circular wait with a global lock order, break hold-and-wait with tryLock and backoff,
+and keep a watchdog for the code that does neither."
+================================================================================
+*/
@@ -0,0 +1,361 @@
+package JAVA_09_MULTITHREADING_CONCURRENCY;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free ring buffer: the producer/consumer hand-off of Java_6_WaitNotify
+ * without a monitor. Slots are preallocated, the consumer drains in batches and
+ * the "what to do while waiting" policy is pluggable.
+ */
+public class Java_17_RingBufferChannel {
+
+    public static void main(String[] args) throws InterruptedException {
+        int messages = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int[] producerCounts = {1, 4, 16};
+
+        // Warm-up
+        runMonitor(4, messages / 10);
+        runRing(new MultiProducer<>(1024), WaitStrategy.YIELD, 4, messages / 10);
+        runRing(new SingleProducer<>(1024), WaitStrategy.YIELD, 1, messages / 10);
+
+        System.out.println("producers | channel                 | msgs/sec     | p50 us  | p99 us");
+        for (int producers : producerCounts) {
+            print(producers, "wait/notify (Java_6)", runMonitor(producers, messages));
+            if (producers == 1) {
+                print(producers, "SPSC ring + yield", runRing(new SingleProducer<>(1024), WaitStrategy.YIELD, 1, messages));
+            }
+            for (WaitStrategy ws : WaitStrategy.values()) {
+                print(producers, "MPSC ring + " + ws, runRing(new MultiProducer<>(1024), ws, producers, messages));
+            }
+        }
+    }
+
+    // =========================
+    // WAIT STRATEGIES
+    // =========================
+    public enum WaitStrategy {
+        BUSY_SPIN {  // lowest latency, burns a full core
+            @Override void idle(int round) { Thread.onSpinWait(); }
+        },
+        YIELD {      // spin a little, then give the core away
+            @Override void idle(int round) { if (round < 100) Thread.onSpinWait(); else Thread.yield(); }
+        },
+        PARK {       // cheapest on CPU, wake-up latency ~ timer slack (50us+)
+            @Override void idle(int round) { if (round < 100) Thread.onSpinWait(); else LockSupport.parkNanos(1_000); }
+        };
+
+        /** Called with an increasing round counter while the channel is full / empty. */
+        abstract void idle(int round);
+    }
+
+    // =========================
+    // CHANNEL CONTRACT
+    // =========================
+    public abstract static class RingChannel<E> {
+        protected final Object[] buffer;
+        protected final int mask;
+
+        protected RingChannel(int capacity) {
+            if (Integer.bitCount(capacity) != 1) throw new IllegalArgumentException("capacity must be a power of two");
+            buffer = new Object[capacity];
+            mask = capacity - 1;
+        }
+
+        /** Non-blocking; false when full. */
+        public abstract boolean offer(E e);
+
+        /** Non-blocking; null when empty. Single consumer only. */
+        public abstract E poll();
+
+        /** Hands up to {@code max} elements to {@code sink}; returns how many. Single consumer only. */
+        public abstract int drain(Consumer<? super E> sink, int max);
+
+        public void put(E e, WaitStrategy ws) {
+            for (int round = 0; !offer(e); round++) ws.idle(round);
+        }
+
+        /** Blocks (per the wait strategy) until at least one element was drained. */
+        public int drainBlocking(Consumer<? super E> sink, int max, WaitStrategy ws) {
+            int n;
+            for (int round = 0; (n = drain(sink, max)) == 0; round++) ws.idle(round);
+            return n;
+        }
+    }
+
+    // Padding keeps the producer and consumer counters on separate cache lines
+    @SuppressWarnings("unused")
+    static final class PaddedSequence extends AtomicLong {
+        long p1, p2, p3, p4, p5, p6, p7;
+    }
+
+    // A sequence plus its OWNER's cached view of the other side, kept on the owner's cache line
+    @SuppressWarnings("unused")
+    static final class CachingSequence extends AtomicLong {
+        long cache;
+        long p1, p2, p3, p4, p5, p6;
+    }
+
+    // =========================
+    // SINGLE PRODUCER / SINGLE CONSUMER
+    // =========================
+    public static final class SingleProducer<E> extends RingChannel<E> {
+        // tail.cache = producer's stale view of head, head.cache = consumer's stale view of tail:
+        // each side only touches its own line until its cached view runs out
+        private final CachingSequence tail = new CachingSequence(); // written by producer only
+        private final CachingSequence head = new CachingSequence(); // written by consumer only
+
+        public SingleProducer(int capacity) {
+            super(capacity);
+        }
+
+        @Override
+        public boolean offer(E e) {
+            long t = tail.getPlain();
+            if (t - tail.cache >= buffer.length) {
+                tail.cache = head.getAcquire();
+                if (t - tail.cache >= buffer.length) return false;
+            }
+            buffer[(int) t & mask] = e;
+            tail.setRelease(t + 1); // publishes the slot write
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E poll() {
+            long h = head.getPlain();
+            if (h >= head.cache) {
+                head.cache = tail.getAcquire();
+                if (h >= head.cache) return null;
+            }
+            int idx = (int) h & mask;
+            E e = (E) buffer[idx];
+            buffer[idx] = null;
+            head.setRelease(h + 1);
+            return e;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public int drain(Consumer<? super E> sink, int max) {
+            long h = head.getPlain();
+            long available = tail.getAcquire() - h;
+            int n = (int) Math.min(available, max);
+            for (int i = 0; i < n; i++) {
+                int idx = (int) (h + i) & mask;
+                sink.accept((E) buffer[idx]);
+                buffer[idx] = null;
+            }
+            if (n > 0) head.setRelease(h + n); // ONE release for the whole batch
+            return n;
+        }
+    }
+
+    // =========================
+    // MULTI PRODUCER / SINGLE CONSUMER (Vyukov-style per-slot sequence)
+    // =========================
+    public static final class MultiProducer<E> extends RingChannel<E> {
+        private final PaddedSequence tail = new PaddedSequence(); // claimed by producers via CAS
+        private final AtomicLongArray sequences;                  // slot i is free for ticket t when seq == t
+        private long head;                                        // consumer-private
+
+        public MultiProducer(int capacity) {
+            super(capacity);
+            sequences = new AtomicLongArray(capacity);
+            for (int i = 0; i < capacity; i++) sequences.set(i, i);
+        }
+
+        @Override
+        public boolean offer(E e) {
+            while (true) {
+                long t = tail.get();
+                int idx = (int) t & mask;
+                long diff = sequences.getAcquire(idx) - t;
+                if (diff == 0) {
+                    if (tail.compareAndSet(t, t + 1)) {
+                        buffer[idx] = e;
+                        sequences.setRelease(idx, t + 1); // slot now readable
+                        return true;
+                    }
+                } else if (diff < 0) {
+                    return false; // consumer has not freed this slot yet -> full
+                }
+                // diff > 0: another producer already claimed t, reload tail
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E poll() {
+            int idx = (int) head & mask;
+            if (sequences.getAcquire(idx) != head + 1) return null;
+            E e = (E) buffer[idx];
+            buffer[idx] = null;
+            sequences.setRelease(idx, head + buffer.length); // free for the ticket one lap later
+            head++;
+            return e;
+        }
+
+        @Override
+        public int drain(Consumer<? super E> sink, int max) {
+            int n = 0;
+            E e;
+            while (n < max && (e = poll()) != null) {
+                sink.accept(e);
+                n++;
+            }
+            return n;
+        }
+    }
+
+    // =========================
+    // BENCHMARK
+    // =========================
+    record Result(double msgsPerSec, double p50Micros, double p99Micros) {}
+
+    private static Result runRing(RingChannel<Long> channel, WaitStrategy ws, int producers, int messages)
+            throws InterruptedException {
+        int perProducer = messages / producers;
+        int total = perProducer * producers;
+        long[] latencies = new long[total];
+
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            threads[p] = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) channel.put(System.nanoTime(), ws);
+            });
+        }
+        long begin = System.nanoTime();
+        for (Thread t : threads) t.start();
+
+        int[] received = {0};
+        Consumer<Long> sink = stamp -> latencies[received[0]++] = System.nanoTime() - stamp;
+        while (received[0] < total) channel.drainBlocking(sink, 256, ws);
+        long elapsed = System.nanoTime() - begin;
+        for (Thread t : threads) t.join();
+        return summarize(latencies, elapsed);
+    }
+
+    /** Java_6_WaitNotify's flag hand-off, extended to carry a value and to loop. */
+    static final class MonitorHandoff {
+        private final Object lock = new Object();
+        private boolean messageAvailable = false;
+        private long message;
+
+        void produce(long value) throws InterruptedException {
+            synchronized (lock) {
+                while (messageAvailable) lock.wait();
+                message = value;
+                messageAvailable = true;
+                lock.notifyAll();
+            }
+        }
+
+        long consume() throws InterruptedException {
+            synchronized (lock) {
+                while (!messageAvailable) lock.wait();
+                messageAvailable = false;
+                lock.notifyAll();
+                return message;
+            }
+        }
+    }
+
+    private static Result runMonitor(int producers, int messages) throws InterruptedException {
+        int perProducer = messages / producers;
+        int total = perProducer * producers;
+        long[] latencies = new long[total];
+        MonitorHandoff handoff = new MonitorHandoff();
+
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            threads[p] = new Thread(() -> {
+                try {
+                    for (int i = 0; i < perProducer; i++) handoff.produce(System.nanoTime());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        long begin = System.nanoTime();
+        for (Thread t : threads) t.start();
+        for (int i = 0; i < total; i++) latencies[i] = System.nanoTime() - handoff.consume();
+        long elapsed = System.nanoTime() - begin;
+        for (Thread t : threads) t.join();
+        return summarize(latencies, elapsed);
+    }
+
+    private static Result summarize(long[] latencies, long elapsedNanos) {
+        Arrays.sort(latencies);
+        return new Result(latencies.length / (elapsedNanos / 1e9),
+                latencies[latencies.length / 2] / 1e3,
+                latencies[(int) (latencies.length * 0.99)] / 1e3);
+    }
+
+    private static void print(int producers, String name, Result r) {
+        System.out.printf("%9d | %-23s | %,12.0f | %7.1f | %7.1f%n",
+                producers, name, r.msgsPerSec(), r.p50Micros(), r.p99Micros());
+    }
+}
+
+/*
+================================================================================
+RING BUFFER CHANNEL – DEEP DIVE
+================================================================================
+
+WHAT:
+-----
+A fixed-size array used as a circular queue between threads.
+• SingleProducer  → 1 producer, 1 consumer, no CAS at all
+• MultiProducer   → N producers claim slots with ONE CAS, 1 consumer
+• drain()         → consumer takes a whole batch per wake-up
+• WaitStrategy    → BUSY_SPIN / YIELD / PARK when full or empty
+
+WHY IT EXISTS:
+--------------
+• Java_6 wait/notify: every message = lock, notify, context switch, re-lock.
+• Ring buffer: producers and consumer touch DIFFERENT cache lines;
+  a message costs a couple of ordered memory accesses, not a kernel call.
+
+INTERNAL WORKING:
+-----------------
+• Capacity = power of two → index = sequence & mask (no modulo).
+• SPSC: tail written only by producer, head only by consumer;
+  setRelease/getAcquire give the happens-before edge, cached copies avoid
+  reading the other side's cache line on every call.
+• MPSC: per-slot sequence number (Dmitry Vyukov's bounded queue):
+    seq == ticket      → slot free for that producer
+    seq == ticket + 1  → slot full, consumer may read
+    seq == ticket + capacity → freed for the next lap
+• SPSC batch drain: one head publish per batch instead of per element.
+  MPSC drain still frees slot by slot: each slot's sequence is what producers wait on.
+
+TIME COMPLEXITY / PERFORMANCE:
+-----------------------------
+• offer / poll: O(1), allocation-free (slots preallocated)
+• Memory: capacity references (+ capacity longs for MPSC)
+• Throughput is bounded by cache-line transfer, not by the scheduler.
+
+ENTERPRISE PITFALLS:
+-------------------
+❌ BUSY_SPIN with more spinning threads than cores → everyone starves
+❌ Forgetting to null the slot → consumed objects stay reachable (leak)
+❌ Non power-of-two capacity with `& mask` → wrong slots
+❌ Calling poll()/drain() from two consumers → both variants are single-consumer
+
+REAL SYSTEM USAGE:
+-----------------
+✔ LMAX Disruptor, Aeron, JCTools queues
+✔ Log appenders (async logging)
+✔ Market-data fan-in, telemetry pipelines
+
+INTERVIEW ONE-LINER:
+-------------------
+"Replace lock-and-notify hand-off with a preallocated ring where producers and consumers
+only meet through sequence numbers."
+================================================================================
+*/
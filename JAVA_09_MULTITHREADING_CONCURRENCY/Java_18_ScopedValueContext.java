@@ -0,0 +1,228 @@
+package JAVA_09_MULTITHREADING_CONCURRENCY;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.function.Supplier;
+
+/**
+ * Request context for virtual threads: ScopedValue instead of the ThreadLocal
+ * `threadContext` in Java_7_VolatileAtomicThreadLocal.
+ * Java 21: ScopedValue / StructuredTaskScope are preview APIs -> javac/java --enable-preview.
+ */
+public class Java_18_ScopedValueContext {
+
+    // Same role as Java_7's threadContext, but immutable and bounded to a scope
+    static final ContextCarrier<String> REQUEST_ID = new ContextCarrier<>();
+
+    public static void main(String[] args) throws Exception {
+        int virtualThreads = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        // --- DEMONSTRATION: binding + inheritance ---
+        REQUEST_ID.run("req-42", () -> {
+            System.out.println("Handler sees: " + REQUEST_ID.get());
+
+            // Path 1: StructuredTaskScope children inherit the binding automatically
+            try (var scope = new StructuredTaskScope.ShutdownOnFailure()) {
+                var child = scope.fork(() -> "child sees " + REQUEST_ID.get());
+                scope.join().throwIfFailed();
+                System.out.println("Forked subtask: " + child.get());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+
+            // Path 2: plain executors do NOT inherit -> capture explicitly with wrap()
+            try (ExecutorService pool = Executors.newFixedThreadPool(1)) {
+                pool.submit(REQUEST_ID.wrap(() -> System.out.println("Pool task sees: " + REQUEST_ID.get())));
+            }
+        });
+        System.out.println("Outside any scope, bound? " + REQUEST_ID.isBound()); // nothing to remove()
+
+        // --- MEASUREMENT ---
+        System.out.printf("%nLookup latency (ns/get): ThreadLocal %.2f | ScopedValue %.2f%n",
+                threadLocalLookupNanos(), scopedValueLookupNanos());
+
+        for (Binding b : Binding.values()) heapPerVirtualThread(virtualThreads / 10, b); // warm-up
+
+        System.out.printf("Heap per parked virtual thread (bytes, %,d threads):%n", virtualThreads);
+        long base = heapPerVirtualThread(virtualThreads, Binding.NONE);
+        System.out.printf("  no context  : %,d%n", base);
+        for (Binding b : new Binding[]{Binding.THREAD_LOCAL, Binding.SCOPED_VALUE}) {
+            long perThread = heapPerVirtualThread(virtualThreads, b);
+            System.out.printf("  %-12s: %,d (%+,d for the context)%n", b, perThread, perThread - base);
+        }
+    }
+
+    // =========================
+    // CONTEXT CARRIER API
+    // =========================
+    public static final class ContextCarrier<T> {
+        private final ScopedValue<T> key = ScopedValue.newInstance();
+
+        /** Binds {@code value} for the duration of {@code body}; unbinds automatically, even on exceptions. */
+        public void run(T value, Runnable body) {
+            ScopedValue.where(key, value).run(body);
+        }
+
+        public <R> R call(T value, Callable<R> body) throws Exception {
+            return ScopedValue.where(key, value).call(body);
+        }
+
+        /** @throws java.util.NoSuchElementException when not bound (a bug, not a default) */
+        public T get() {
+            return key.get();
+        }
+
+        public T orElse(T fallback) {
+            return key.orElse(fallback);
+        }
+
+        public boolean isBound() {
+            return key.isBound();
+        }
+
+        /**
+         * Inheritance path for executors that are not structured: captures the CURRENT binding
+         * and re-binds it on whichever thread runs the task.
+         */
+        public Runnable wrap(Runnable task) {
+            if (!key.isBound()) return task;
+            T captured = key.get();
+            return () -> ScopedValue.where(key, captured).run(task);
+        }
+
+        public <R> Callable<R> wrap(Callable<R> task) {
+            if (!key.isBound()) return task;
+            T captured = key.get();
+            return () -> ScopedValue.where(key, captured).call(task);
+        }
+    }
+
+    // =========================
+    // BENCHMARKS
+    // =========================
+    private static final ThreadLocal<String> THREAD_CONTEXT = ThreadLocal.withInitial(() -> "InitialValue");
+
+    private static double threadLocalLookupNanos() {
+        THREAD_CONTEXT.set("req-1");
+        try {
+            return lookupLoop(THREAD_CONTEXT::get);
+        } finally {
+            THREAD_CONTEXT.remove();
+        }
+    }
+
+    private static double scopedValueLookupNanos() throws Exception {
+        return REQUEST_ID.call("req-1", () -> lookupLoop(REQUEST_ID::get));
+    }
+
+    private static double lookupLoop(Supplier<String> lookup) {
+        int iterations = 50_000_000;
+        long sink = 0;
+        for (int warm = 0; warm < 3; warm++) {
+            for (int i = 0; i < iterations / 10; i++) sink += lookup.get().length();
+        }
+        long begin = System.nanoTime();
+        for (int i = 0; i < iterations; i++) sink += lookup.get().length();
+        long elapsed = System.nanoTime() - begin;
+        if (sink == 42) System.out.println(); // keeps the loop alive
+        return (double) elapsed / iterations;
+    }
+
+    enum Binding { NONE, THREAD_LOCAL, SCOPED_VALUE }
+
+    private static long heapPerVirtualThread(int count, Binding binding) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(count);
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable park = () -> {
+            started.countDown();
+            try {
+                release.await(); // thread stays alive (and its context with it) while we measure
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        long before = usedHeapAfterGc();
+        Thread[] threads = new Thread[count];
+        for (int i = 0; i < count; i++) {
+            String requestId = "req-" + i;
+            Runnable body = switch (binding) {
+                case NONE -> park;
+                case THREAD_LOCAL -> () -> {
+                    THREAD_CONTEXT.set(requestId); // allocates a ThreadLocalMap per thread
+                    try {
+                        park.run();
+                    } finally {
+                        THREAD_CONTEXT.remove();
+                    }
+                };
+                case SCOPED_VALUE -> () -> REQUEST_ID.run(requestId, park);
+            };
+            threads[i] = Thread.ofVirtual().start(body);
+        }
+        started.await();
+        long after = usedHeapAfterGc();
+        release.countDown();
+        for (Thread t : threads) t.join();
+        return (after - before) / count;
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
+
+/*
+================================================================================
+SCOPEDVALUE CONTEXT – DEEP DIVE
+================================================================================
+
+WHAT:
+-----
+ScopedValue (JEP 446, preview in 21) = an immutable value bound for the
+dynamic extent of a method call: where(key, value).run(body).
+
+WHY IT EXISTS:
+--------------
+• ThreadLocal is mutable, lives as long as the thread, and needs remove().
+• Every thread that set() a ThreadLocal gets its own ThreadLocalMap
+  (table + entries) → with 1M virtual threads that is 1M maps.
+• InheritableThreadLocal COPIES the map into every child thread.
+
+INTERNAL WORKING:
+-----------------
+• Bindings live in a small linked "snapshot" referenced by the thread;
+  a child in StructuredTaskScope.fork() just points at the parent's snapshot (no copy).
+• get() walks the snapshot once and then hits a tiny per-thread cache.
+• Binding ends when run()/call() returns → nothing to leak, nothing to remove().
+• Plain ExecutorService tasks are NOT children → ContextCarrier.wrap() re-binds
+  the captured value on the worker.
+
+TIME COMPLEXITY / PERFORMANCE:
+-----------------------------
+• get(): O(1) after the first lookup (cache), comparable to ThreadLocal.get()
+• Memory: one small binding object per where(), shared by all forked children
+
+ENTERPRISE PITFALLS:
+-------------------
+❌ Expecting set() semantics → values are immutable; re-bind in a nested where()
+❌ Submitting to a pool without wrap() → NoSuchElementException on get()
+❌ Preview API → compile and run with --enable-preview on Java 21
+
+REAL SYSTEM USAGE:
+-----------------
+✔ Request / trace id propagation in virtual-thread servers
+✔ Security principal / tenant id
+✔ Transaction context in structured fan-out
+
+INTERVIEW ONE-LINER:
+-------------------
+"ThreadLocal is per-thread mutable storage; ScopedValue is per-call immutable context
+that children share for free."
+================================================================================
+*/
@@ -0,0 +1,194 @@
+package JAVA_09_MULTITHREADING_CONCURRENCY;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Structured fan-out on virtual threads for the `fetchTask` pattern of Java_2_ThreadCreation
+ * and Java_8_ExecutorFramework: one virtual thread per Callable, fail-fast, deadline per scope,
+ * and a permit limit so a downstream service never sees more than N calls at once.
+ * Java 21: StructuredTaskScope is a preview API -> javac/java --enable-preview.
+ */
+public class Java_19_StructuredFanOut {
+
+    public static void main(String[] args) throws Exception {
+        int calls = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int ioMillis = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int poolSize = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+        List<Callable<String>> fetchTasks = new ArrayList<>(calls);
+        for (int i = 0; i < calls; i++) {
+            int id = i;
+            fetchTasks.add(() -> {
+                Thread.sleep(ioMillis); // Simulate I/O, like fetchTask in Java_2
+                return "Data from Microservice " + id;
+            });
+        }
+
+        System.out.printf("%,d calls x %d ms simulated I/O%n", calls, ioMillis);
+        System.out.println("mode                         | wall ms  | peak heap MB");
+        runFixedPool(fetchTasks, poolSize);
+        runStructured(fetchTasks, new FanOutExecutor(10_000), "virtual, 10k permits");
+        runStructured(fetchTasks, new FanOutExecutor(Integer.MAX_VALUE), "virtual, unbounded");
+
+        // --- Fail-fast: one failure cancels the siblings ---
+        FanOutExecutor fanOut = new FanOutExecutor(100);
+        List<Callable<String>> oneBad = List.of(
+                () -> { Thread.sleep(5_000); return "slow"; },
+                () -> { throw new IllegalStateException("Microservice B is down"); });
+        long t0 = System.nanoTime();
+        try {
+            fanOut.invokeAll(oneBad, Duration.ofSeconds(10));
+        } catch (ExecutionException e) {
+            System.out.printf("%nFail-fast after %d ms: %s%n", (System.nanoTime() - t0) / 1_000_000, e.getCause().getMessage());
+        }
+
+        // --- Deadline: the whole scope is cancelled when time is up ---
+        try {
+            fanOut.invokeAll(List.of(() -> { Thread.sleep(5_000); return "too slow"; }), Duration.ofMillis(200));
+        } catch (TimeoutException e) {
+            System.out.println("Deadline hit, slow subtask interrupted: " + e);
+        }
+    }
+
+    // =========================
+    // FAN-OUT EXECUTOR
+    // =========================
+    public static final class FanOutExecutor {
+        private final Semaphore permits;
+
+        /** @param maxConcurrency max subtasks running their body at the same time (per executor) */
+        public FanOutExecutor(int maxConcurrency) {
+            this.permits = new Semaphore(maxConcurrency);
+        }
+
+        /**
+         * Runs every task on its own virtual thread and returns results in task order.
+         * First failure cancels (interrupts) the rest; the deadline bounds the whole scope.
+         */
+        public <T> List<T> invokeAll(List<? extends Callable<T>> tasks, Duration deadline)
+                throws InterruptedException, ExecutionException, TimeoutException {
+            try (var scope = new StructuredTaskScope.ShutdownOnFailure()) {
+                List<StructuredTaskScope.Subtask<T>> subtasks = new ArrayList<>(tasks.size());
+                for (Callable<T> task : tasks) {
+                    subtasks.add(scope.fork(() -> {
+                        permits.acquire(); // blocking a virtual thread is cheap: it just unmounts
+                        try {
+                            return task.call();
+                        } finally {
+                            permits.release();
+                        }
+                    }));
+                }
+
+                scope.joinUntil(Instant.now().plus(deadline)); // TimeoutException -> close() cancels all
+                scope.throwIfFailed();                        // ExecutionException with the FIRST failure
+
+                List<T> results = new ArrayList<>(subtasks.size());
+                for (StructuredTaskScope.Subtask<T> s : subtasks) results.add(s.get());
+                return results;
+            }
+        }
+    }
+
+    // =========================
+    // BENCHMARK
+    // =========================
+    private static void runFixedPool(List<Callable<String>> tasks, int poolSize) throws Exception {
+        resetPeakHeap();
+        long begin = System.nanoTime();
+        try (ExecutorService executor = Executors.newFixedThreadPool(poolSize)) {
+            List<Future<String>> futures = executor.invokeAll(tasks);
+            for (Future<String> f : futures) f.get();
+        }
+        report("fixed pool (" + poolSize + " threads)", begin);
+    }
+
+    private static void runStructured(List<Callable<String>> tasks, FanOutExecutor executor, String name)
+            throws Exception {
+        resetPeakHeap();
+        long begin = System.nanoTime();
+        executor.invokeAll(tasks, Duration.ofMinutes(10));
+        report(name, begin);
+    }
+
+    private static void resetPeakHeap() {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) pool.resetPeakUsage();
+        }
+    }
+
+    private static void report(String name, long beginNanos) {
+        long wallMs = (System.nanoTime() - beginNanos) / 1_000_000;
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) peak += pool.getPeakUsage().getUsed();
+        }
+        System.out.printf("%-28s | %,8d | %,12d%n", name, wallMs, peak / (1024 * 1024));
+    }
+}
+
+/*
+================================================================================
+STRUCTURED FAN-OUT ON VIRTUAL THREADS – DEEP DIVE
+================================================================================
+
+WHAT:
+-----
+Run N blocking calls concurrently, one VIRTUAL thread per call, inside a
+StructuredTaskScope: subtasks cannot outlive the method that forked them.
+
+WHY IT EXISTS:
+--------------
+• newFixedThreadPool(2/3) + Thread.sleep → at most 2/3 calls in flight;
+  100k × 10 ms on 200 threads ≥ 5 s no matter how idle the CPU is.
+• Virtual threads unmount from the carrier while blocked → 100k in flight
+  costs a few hundred bytes of heap each, not 1 MB of stack each.
+• Unbounded concurrency can DDoS the downstream → Semaphore permit.
+
+INTERNAL WORKING:
+-----------------
+• fork()            → new virtual thread per subtask
+• ShutdownOnFailure → first exception shuts the scope down → siblings interrupted
+• joinUntil(dl)     → TimeoutException at the deadline; close() then cancels and waits
+• Semaphore.acquire() inside the subtask: waiting virtual threads are parked, not pinned
+
+TIME COMPLEXITY / PERFORMANCE:
+-----------------------------
+• Wall time ≈ ceil(N / permits) × I/O latency  (vs ceil(N / poolSize) × latency)
+• Memory ≈ N × (virtual thread stack chunk + Subtask)
+• CPU-bound work gains NOTHING: carriers = CPU cores (see Java_11)
+
+ENTERPRISE PITFALLS:
+-------------------
+❌ synchronized around blocking I/O → pins the carrier thread (Java 21)
+❌ Pooling virtual threads → they are cheap, create one per task
+❌ ThreadLocal-heavy libraries × 100k threads → memory (see Java_18)
+❌ Preview API → compile and run with --enable-preview on Java 21
+
+REAL SYSTEM USAGE:
+-----------------
+✔ API gateways / BFFs aggregating many microservices
+✔ Batch HTTP / DB lookups
+✔ Scatter-gather search
+
+INTERVIEW ONE-LINER:
+-------------------
+"Virtual threads make blocking cheap; structured scopes make it safe — failures and
+deadlines cancel the whole fan-out, and a semaphore keeps it polite."
+================================================================================
+*/
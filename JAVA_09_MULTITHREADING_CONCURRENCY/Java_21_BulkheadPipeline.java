@@ -0,0 +1,276 @@
+package JAVA_09_MULTITHREADING_CONCURRENCY;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * CompletableFuture pipelines with bulkheads: every stage group runs on its OWN named,
+ * bounded executor (not the common ForkJoinPool used by Java_10_CompletableFuture),
+ * with a per-stage timeout and fallback, plus an allocation-light fan-in.
+ */
+public class Java_21_BulkheadPipeline {
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+
+        // Demo: two dependencies, one of them down
+        try (Bulkhead inventory = new Bulkhead("inventory", 2, 16);
+             Bulkhead pricing = new Bulkhead("pricing", 2, 16)) {
+            CompletableFuture<String> stock = Stage.supply(() -> "in stock", inventory, 100, t -> "stock unknown");
+            CompletableFuture<String> price = Stage.supply(() -> { throw new IllegalStateException("pricing down"); },
+                    pricing, 100, t -> "price unavailable");
+            CompletableFuture<String> label = Stage.then(stock, s -> "label(" + s + ")", inventory, 100, t -> "no label");
+            System.out.println("Fan-in: " + FanIn.all(List.of(stock, price, label)).get());
+        }
+
+        System.out.println("\nRequest latency with 10% of recommendation calls taking 300 ms");
+        System.out.println("setup                          | p50 ms | p99 ms | max ms | inventory fallbacks | recs fallbacks");
+        runShared(requests, false);
+        runShared(requests, true);
+        runBulkheads(requests);
+    }
+
+    // =========================
+    // BULKHEAD
+    // =========================
+    /** Named, bounded pool: a slow dependency can exhaust ONLY its own threads and queue. */
+    public static final class Bulkhead implements Executor, AutoCloseable {
+        private final ThreadPoolExecutor pool;
+
+        public Bulkhead(String name, int threads, int queueCapacity) {
+            AtomicInteger seq = new AtomicInteger();
+            pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    r -> {
+                        Thread t = new Thread(r, name + "-" + seq.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy()); // full -> fail fast -> stage fallback
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            pool.execute(command);
+        }
+
+        @Override
+        public void close() {
+            pool.shutdownNow();
+        }
+    }
+
+    // =========================
+    // STAGES
+    // =========================
+    public static final class Stage {
+        private Stage() {}
+
+        /** First stage: runs on {@code bulkhead}, fails after {@code timeoutMs}, recovers with {@code fallback}. */
+        public static <T> CompletableFuture<T> supply(Supplier<T> body, Executor bulkhead, long timeoutMs,
+                                                      Function<Throwable, T> fallback) {
+            CompletableFuture<T> f;
+            try {
+                f = CompletableFuture.supplyAsync(body, bulkhead);
+            } catch (RuntimeException rejected) { // bulkhead full: don't even queue
+                return CompletableFuture.completedFuture(fallback.apply(rejected));
+            }
+            return f.orTimeout(timeoutMs, TimeUnit.MILLISECONDS).exceptionally(fallback);
+        }
+
+        /** Next stage on (possibly) another bulkhead, with its own timeout and fallback. */
+        public static <T, R> CompletableFuture<R> then(CompletableFuture<T> upstream, Function<? super T, R> body,
+                                                       Executor bulkhead, long timeoutMs,
+                                                       Function<Throwable, R> fallback) {
+            // A rejection inside thenApplyAsync completes the stage exceptionally -> fallback
+            return upstream.thenApplyAsync(body, bulkhead)
+                    .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                    .exceptionally(fallback);
+        }
+    }
+
+    // =========================
+    // FAN-IN
+    // =========================
+    /**
+     * Waits for N futures with ONE counter and ONE shared callback, instead of the
+     * binary tree of relay nodes allOf() builds. Results keep input order.
+     */
+    public static final class FanIn<T> implements BiConsumer<T, Throwable> {
+        private final List<CompletableFuture<T>> inputs;
+        private final AtomicInteger remaining;
+        private final CompletableFuture<List<T>> result = new CompletableFuture<>();
+
+        private FanIn(List<CompletableFuture<T>> inputs) {
+            this.inputs = inputs;
+            this.remaining = new AtomicInteger(inputs.size());
+        }
+
+        public static <T> CompletableFuture<List<T>> all(List<CompletableFuture<T>> futures) {
+            FanIn<T> fanIn = new FanIn<>(futures);
+            if (futures.isEmpty()) fanIn.result.complete(List.of());
+            for (CompletableFuture<T> f : futures) f.whenComplete(fanIn);
+            return fanIn.result;
+        }
+
+        @Override
+        public void accept(T value, Throwable error) {
+            if (error != null) {
+                result.completeExceptionally(error); // first failure wins, later ones are ignored
+            } else if (remaining.decrementAndGet() == 0) {
+                List<T> values = new ArrayList<>(inputs.size());
+                for (CompletableFuture<T> f : inputs) values.add(f.getNow(null)); // all done: no blocking
+                result.complete(values);
+            }
+        }
+    }
+
+    // =========================
+    // BENCHMARK: injected slow dependency
+    // =========================
+    private static String inventoryCall() {
+        sleep(1);
+        return "stock";
+    }
+
+    private static String recommendationsCall() {
+        sleep(ThreadLocalRandom.current().nextInt(10) == 0 ? 300 : 1); // the slow dependency
+        return "recs";
+    }
+
+    /** Everything on ONE shared pool: what all supplyAsync() calls on the common pool amount to. */
+    private static void runShared(int requests, boolean withTimeouts) throws Exception {
+        // A fixed 8-thread pool stands in for the common pool so results don't depend on core count
+        ExecutorService shared = Executors.newFixedThreadPool(8);
+        long timeout = withTimeouts ? 50 : Long.MAX_VALUE / 2_000_000;
+        AtomicInteger stockFallbacks = new AtomicInteger();
+        AtomicInteger recsFallbacks = new AtomicInteger();
+        long[] latencies = drive(requests, () -> {
+            CompletableFuture<String> stock = Stage.supply(Java_21_BulkheadPipeline::inventoryCall, shared, timeout,
+                    t -> { stockFallbacks.incrementAndGet(); return "stock unknown"; });
+            CompletableFuture<String> recs = Stage.supply(Java_21_BulkheadPipeline::recommendationsCall, shared, timeout,
+                    t -> { recsFallbacks.incrementAndGet(); return "no recs"; });
+            return FanIn.all(List.of(stock, recs));
+        });
+        shared.shutdownNow();
+        report(withTimeouts ? "shared pool + timeouts" : "shared pool (Java_10 style)", latencies,
+                stockFallbacks.get(), recsFallbacks.get());
+    }
+
+    private static void runBulkheads(int requests) throws Exception {
+        try (Bulkhead inventory = new Bulkhead("inventory", 4, 64);
+             Bulkhead recommendations = new Bulkhead("recommendations", 4, 8)) {
+            AtomicInteger stockFallbacks = new AtomicInteger();
+            AtomicInteger recsFallbacks = new AtomicInteger();
+            long[] latencies = drive(requests, () -> {
+                CompletableFuture<String> stock = Stage.supply(Java_21_BulkheadPipeline::inventoryCall, inventory, 50,
+                        t -> { stockFallbacks.incrementAndGet(); return "stock unknown"; });
+                CompletableFuture<String> recs = Stage.supply(Java_21_BulkheadPipeline::recommendationsCall,
+                        recommendations, 50, t -> { recsFallbacks.incrementAndGet(); return "no recs"; });
+                return FanIn.all(List.of(stock, recs));
+            });
+            report("bulkheads + timeouts", latencies, stockFallbacks.get(), recsFallbacks.get());
+        }
+    }
+
+    /** Issues one request every 2 ms (open loop) and records end-to-end latency of each. */
+    private static long[] drive(int requests, Supplier<CompletableFuture<List<String>>> request) throws Exception {
+        long[] latencies = new long[requests];
+        CompletableFuture<?>[] done = new CompletableFuture<?>[requests];
+        long interval = TimeUnit.MILLISECONDS.toNanos(2);
+        long next = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            LockSupport.parkNanos(next - System.nanoTime());
+            long start = System.nanoTime();
+            int id = i;
+            done[i] = request.get().whenComplete((v, e) -> latencies[id] = System.nanoTime() - start);
+            next += interval;
+        }
+        CompletableFuture.allOf(done).get(); // one allOf for the whole run is fine
+        return latencies;
+    }
+
+    /** Inventory is healthy: any inventory fallback means the slow dependency starved it. */
+    private static void report(String name, long[] latencies, int stockFallbacks, int recsFallbacks) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%-30s | %6.1f | %6.1f | %6.1f | %19d | %d%n", name,
+                sorted[sorted.length / 2] / 1e6, sorted[(int) (sorted.length * 0.99)] / 1e6,
+                sorted[sorted.length - 1] / 1e6, stockFallbacks, recsFallbacks);
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
+
+/*
+================================================================================
+BULKHEADED COMPLETABLEFUTURE PIPELINES – DEEP DIVE
+================================================================================
+
+WHAT:
+-----
+• Bulkhead  → named, bounded ThreadPoolExecutor per dependency / stage group
+• Stage     → supplyAsync / thenApplyAsync on that bulkhead + orTimeout + fallback
+• FanIn     → wait for N futures with one counter and one callback
+
+WHY IT EXISTS:
+--------------
+• supplyAsync(fn) without an executor → ForkJoinPool.commonPool()
+  (shared by EVERY parallel stream and async call in the JVM).
+• One blocking dependency fills the common pool → unrelated work queues behind it.
+• Ship compartments: a leak floods one compartment, not the whole ship.
+
+INTERNAL WORKING:
+-----------------
+• ArrayBlockingQueue(capacity) + AbortPolicy → when the bulkhead is full, the call
+  fails IMMEDIATELY and the fallback answers (load shedding instead of queueing).
+• orTimeout(ms) completes the future exceptionally via a shared delayer thread;
+  it does NOT interrupt the running task → the bulkhead bound is what caps the damage.
+• allOf(a, b, c, d) builds a tree of BiRelay nodes (≈ N allocations + the array);
+  FanIn registers the SAME callback on every input and reads results with getNow().
+
+TIME COMPLEXITY / PERFORMANCE:
+-----------------------------
+• Stage overhead: one task submission + one timeout registration
+• Fan-in: O(N) callbacks, one AtomicInteger, one result list
+• Tail latency of healthy dependencies stays flat when another dependency slows down
+
+ENTERPRISE PITFALLS:
+-------------------
+❌ Unbounded queue in a bulkhead → it is just a slower common pool
+❌ Timeout without fallback → the error propagates and fails the whole request
+❌ Blocking join() inside a stage running on the same bulkhead → self-deadlock
+❌ Sizing bulkheads without data → see Java_22 (queue wait histograms)
+
+REAL SYSTEM USAGE:
+-----------------
+✔ Resilience4j Bulkhead / Hystrix thread-pool isolation
+✔ Backend-for-frontend aggregation
+✔ Graceful degradation ("no recommendations" instead of an error page)
+
+INTERVIEW ONE-LINER:
+-------------------
+"Give every dependency its own bounded pool, a timeout and a fallback — so one slow
+service degrades one feature, not the whole JVM."
+================================================================================
+*/
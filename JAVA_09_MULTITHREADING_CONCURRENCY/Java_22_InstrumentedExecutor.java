@@ -0,0 +1,348 @@
+package JAVA_09_MULTITHREADING_CONCURRENCY;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.management.ObjectName;
+
+/**
+ * ThreadPoolExecutor that measures what Java_8_ExecutorFramework's bare newFixedThreadPool hides:
+ * queue wait (enqueue -> start) and service time (start -> finish) per task, in log-linear
+ * histograms, plus active / queued / rejected counts over JMX.
+ */
+public class Java_22_InstrumentedExecutor {
+
+    public static void main(String[] args) throws Exception {
+        int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+
+        // --- Same shape as Java_8: 3 threads, a Runnable and a Callable ---
+        InstrumentedExecutor executor = InstrumentedExecutor.newFixedThreadPool("demo", 3, Integer.MAX_VALUE);
+        executor.submit(() -> System.out.println("Task 1 executed by " + Thread.currentThread().getName()));
+        Future<String> future = executor.submit(() -> {
+            Thread.sleep(50);
+            return "Task 2 result by " + Thread.currentThread().getName();
+        });
+        System.out.println(future.get());
+        for (int i = 0; i < 20; i++) executor.submit(() -> sleep(5)); // saturate: 20 tasks, 3 threads
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        System.out.println(executor.report());
+        System.out.println("JMX: " + executor.objectName() + " (open jconsole while it runs)\n");
+
+        // --- Overhead ---
+        System.out.printf("Histogram.record(): %.1f ns%n", recordCostNanos());
+        double clock = nanoTimeCostNanos();
+        double wrapper = wrapperCostNanos();
+        System.out.printf("System.nanoTime(): %.1f ns (platform dependent: ~20 ns on bare-metal TSC, more in VMs)%n", clock);
+        System.out.printf("Recording overhead per task: %.1f ns total, %.1f ns excluding the 3 clock reads%n",
+                wrapper, wrapper - 3 * clock);
+        double plain = perTaskNanos(new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>()), tasks);
+        double instrumented = perTaskNanos(InstrumentedExecutor.newFixedThreadPool("bench", 1, Integer.MAX_VALUE), tasks);
+        System.out.printf("Pool round trip per task: plain %.1f ns | instrumented %.1f ns | delta %.1f ns%n",
+                plain, instrumented, instrumented - plain);
+    }
+
+    // =========================
+    // LOG-LINEAR HISTOGRAM
+    // =========================
+    /**
+     * HdrHistogram-style buckets: each power of two is split into 16 linear sub-buckets
+     * (~6% relative error). Recording = one shift, one count-leading-zeros, one atomic add.
+     */
+    public static final class LogLinearHistogram {
+        private static final int SUB_BITS = 4;
+        private static final int SUB = 1 << SUB_BITS;
+        private static final int BUCKETS = (64 - SUB_BITS) * SUB;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+        public void record(long value) {
+            counts.getAndIncrement(index(Math.max(0, value))); // no separate total: count() sums buckets
+        }
+
+        static int index(long v) {
+            if (v < SUB) return (int) v;
+            int exp = 63 - Long.numberOfLeadingZeros(v);                // position of highest bit, >= SUB_BITS
+            int sub = (int) (v >>> (exp - SUB_BITS)) & (SUB - 1);         // next SUB_BITS bits, linear
+            return (exp - SUB_BITS + 1) * SUB + sub;
+        }
+
+        static long lowerBound(int index) {
+            if (index < SUB) return index;
+            int exp = index / SUB + SUB_BITS - 1;
+            return (long) (SUB + index % SUB) << (exp - SUB_BITS);
+        }
+
+        public long count() {
+            long n = 0;
+            for (int i = 0; i < BUCKETS; i++) n += counts.get(i);
+            return n;
+        }
+
+        /** Value at quantile q (0..1), as the lower bound of the bucket that contains it. */
+        public long percentile(double q) {
+            long n = count();
+            if (n == 0) return 0;
+            long rank = (long) Math.ceil(q * n);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts.get(i);
+                if (seen >= rank) return lowerBound(i);
+            }
+            return lowerBound(BUCKETS - 1);
+        }
+    }
+
+    // =========================
+    // JMX VIEW
+    // =========================
+    public interface ExecutorStatsMXBean {
+        int getActiveCount();
+
+        int getQueueSize();
+
+        long getRejectedCount();
+
+        long getCompletedTaskCount();
+
+        long getQueueWaitP50Micros();
+
+        long getQueueWaitP99Micros();
+
+        long getServiceTimeP50Micros();
+
+        long getServiceTimeP99Micros();
+    }
+
+    // =========================
+    // INSTRUMENTED EXECUTOR
+    // =========================
+    public static final class InstrumentedExecutor extends ThreadPoolExecutor implements ExecutorStatsMXBean {
+        private final LogLinearHistogram queueWait = new LogLinearHistogram();
+        private final LogLinearHistogram serviceTime = new LogLinearHistogram();
+        private final CountingAbortPolicy rejections;
+        private final String name;
+        private ObjectName objectName;
+
+        private InstrumentedExecutor(String name, int threads, int queueCapacity, CountingAbortPolicy rejections) {
+            super(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(queueCapacity), rejections);
+            this.name = name;
+            this.rejections = rejections;
+        }
+
+        /** Like Executors.newFixedThreadPool, but with a queue bound and metrics. */
+        public static InstrumentedExecutor newFixedThreadPool(String name, int threads, int queueCapacity) {
+            InstrumentedExecutor e = new InstrumentedExecutor(name, threads, queueCapacity, new CountingAbortPolicy());
+            e.register();
+            return e;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            super.execute(new TimedTask(command, System.nanoTime())); // submit() also lands here
+        }
+
+        @Override
+        protected void terminated() {
+            super.terminated();
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (Exception ignored) {
+                // already gone
+            }
+        }
+
+        private void register() {
+            try {
+                objectName = new ObjectName("JAVA_09:type=Executor,name=" + ObjectName.quote(name));
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            } catch (Exception e) {
+                throw new IllegalStateException("Could not register executor MBean " + name, e);
+            }
+        }
+
+        public ObjectName objectName() {
+            return objectName;
+        }
+
+        public LogLinearHistogram queueWaitNanos() {
+            return queueWait;
+        }
+
+        public LogLinearHistogram serviceTimeNanos() {
+            return serviceTime;
+        }
+
+        @Override public int getQueueSize() { return getQueue().size(); }
+        @Override public long getRejectedCount() { return rejections.count.get(); }
+        @Override public long getQueueWaitP50Micros() { return queueWait.percentile(0.50) / 1_000; }
+        @Override public long getQueueWaitP99Micros() { return queueWait.percentile(0.99) / 1_000; }
+        @Override public long getServiceTimeP50Micros() { return serviceTime.percentile(0.50) / 1_000; }
+        @Override public long getServiceTimeP99Micros() { return serviceTime.percentile(0.99) / 1_000; }
+
+        public String report() {
+            return String.format("[%s] completed=%d rejected=%d | queue wait p50=%dus p99=%dus | service p50=%dus p99=%dus",
+                    name, getCompletedTaskCount(), getRejectedCount(),
+                    getQueueWaitP50Micros(), getQueueWaitP99Micros(),
+                    getServiceTimeP50Micros(), getServiceTimeP99Micros());
+        }
+
+        /** AbortPolicy that counts before it throws. */
+        private static final class CountingAbortPolicy extends AbortPolicy {
+            final AtomicLong count = new AtomicLong();
+
+            @Override
+            public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+                count.incrementAndGet();
+                super.rejectedExecution(r, executor);
+            }
+        }
+
+        final class TimedTask implements Runnable {
+            private final Runnable delegate;
+            private final long enqueuedAt;
+
+            TimedTask(Runnable delegate, long enqueuedAt) {
+                this.delegate = delegate;
+                this.enqueuedAt = enqueuedAt;
+            }
+
+            @Override
+            public void run() {
+                long start = System.nanoTime();
+                queueWait.record(start - enqueuedAt);
+                try {
+                    delegate.run();
+                } finally {
+                    serviceTime.record(System.nanoTime() - start);
+                }
+            }
+        }
+    }
+
+    // =========================
+    // OVERHEAD BENCHMARK
+    // =========================
+    private static double recordCostNanos() {
+        LogLinearHistogram h = new LogLinearHistogram();
+        int n = 50_000_000;
+        for (int i = 0; i < n / 10; i++) h.record(i & 0xFFFFF); // warm-up
+        long t0 = System.nanoTime();
+        for (int i = 0; i < n; i++) h.record(i & 0xFFFFF);
+        return (double) (System.nanoTime() - t0) / n;
+    }
+
+    private static double nanoTimeCostNanos() {
+        int n = 20_000_000;
+        long sink = 0;
+        for (int i = 0; i < n / 10; i++) sink += System.nanoTime();
+        long t0 = System.nanoTime();
+        for (int i = 0; i < n; i++) sink += System.nanoTime();
+        long elapsed = System.nanoTime() - t0;
+        return sink == 42 ? 0 : (double) elapsed / n;
+    }
+
+    /** What a worker pays per task on top of running it: measured on one thread, no queue in between. */
+    private static double wrapperCostNanos() {
+        InstrumentedExecutor executor = InstrumentedExecutor.newFixedThreadPool("wrapper-cost", 1, 1);
+        Runnable noop = () -> {};
+        int n = 20_000_000;
+        for (int i = 0; i < n / 10; i++) executor.new TimedTask(noop, System.nanoTime()).run(); // warm-up
+        long t0 = System.nanoTime();
+        for (int i = 0; i < n; i++) executor.new TimedTask(noop, System.nanoTime()).run();
+        long instrumented = System.nanoTime() - t0;
+        t0 = System.nanoTime();
+        for (int i = 0; i < n; i++) noop.run();
+        long plain = System.nanoTime() - t0;
+        executor.shutdown();
+        return (double) (instrumented - plain) / n;
+    }
+
+    /** Submit in bursts of 10k so the queue never holds millions of tasks (that would measure GC instead). */
+    private static double perTaskNanos(ThreadPoolExecutor executor, int tasks) throws InterruptedException {
+        Runnable noop = () -> {};
+        int burst = 10_000;
+        runBursts(executor, noop, tasks / 4, burst); // warm-up
+        long t0 = System.nanoTime();
+        runBursts(executor, noop, tasks, burst);
+        long elapsed = System.nanoTime() - t0;
+        executor.shutdown();
+        return (double) elapsed / tasks;
+    }
+
+    private static void runBursts(ThreadPoolExecutor executor, Runnable task, int tasks, int burst)
+            throws InterruptedException {
+        for (int done = 0; done < tasks; done += burst) {
+            for (int i = 0; i < burst; i++) executor.execute(task);
+            CountDownLatch drained = new CountDownLatch(1);
+            executor.execute(drained::countDown);
+            drained.await();
+        }
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
+
+/*
+================================================================================
+INSTRUMENTED EXECUTOR – DEEP DIVE
+================================================================================
+
+WHAT:
+-----
+A ThreadPoolExecutor that records, for EVERY task:
+• queue wait   = start − enqueue   → "is the pool too small?"
+• service time = finish − start    → "is the work itself slow?"
+and publishes active / queued / rejected / percentiles as an MXBean.
+
+WHY IT EXISTS:
+--------------
+• newFixedThreadPool(3) is a black box: an unbounded LinkedBlockingQueue can hold
+  millions of tasks and nothing tells you.
+• Latency = queue wait + service time; tuning needs BOTH numbers separately.
+
+INTERNAL WORKING:
+-----------------
+• execute() wraps the Runnable with its enqueue timestamp (submit() goes through execute()).
+• Histogram bucket = (highest bit, next 4 bits) → 960 AtomicLong buckets cover 0..2^63 ns
+  with ≤ 6.25% error, no allocation, no locks.
+• Rejections counted by an AbortPolicy subclass, then thrown as usual.
+• MBean name: JAVA_09:type=Executor,name="<pool>" → visible in jconsole / VisualVM / JMX exporters.
+
+TIME COMPLEXITY / PERFORMANCE:
+-----------------------------
+• record(): O(1), one atomic increment
+• Per task: 3 × nanoTime (enqueue, start, finish) + 2 × record + 1 wrapper object → target < 50 ns
+  The clock reads dominate; the benchmark prints their cost separately because it varies by platform.
+• count() sums buckets instead of keeping a total → one atomic less on the hot path
+• percentile(): O(buckets) = 960 reads → call it from the metrics scraper, not per task
+
+ENTERPRISE PITFALLS:
+-------------------
+❌ Percentiles computed by averaging per-node p99s → meaningless; merge bucket counts instead
+❌ Only measuring service time → a saturated pool looks "fast"
+❌ Unbounded queue → rejected = 0 forever while latency explodes
+
+REAL SYSTEM USAGE:
+-----------------
+✔ Micrometer's ExecutorServiceMetrics, Dropwizard InstrumentedExecutorService
+✔ Input for pool sizing / autoscaling (see the self-tuning controller later in this module)
+
+INTERVIEW ONE-LINER:
+-------------------
+"Measure queue wait and service time separately — the first tells you to add threads,
+the second tells you adding threads won't help."
+================================================================================
+*/
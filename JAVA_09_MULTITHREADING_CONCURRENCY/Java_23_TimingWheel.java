@@ -0,0 +1,408 @@
+package JAVA_09_MULTITHREADING_CONCURRENCY;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timing wheel: ONE daemon tick thread for any number of timeouts,
+ * O(1) schedule and O(1) cancel. Replaces the `while (true) { sleep(1000) }`
+ * daemon of Java_12_DaemonThread once there are many housekeeping jobs.
+ */
+public class Java_23_TimingWheel {
+
+    public static void main(String[] args) throws Exception {
+        int timers = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        // --- Java_12 demo on the wheel: periodic housekeeping, dies with the last user thread ---
+        TimingWheel wheel = new TimingWheel(10, TimeUnit.MILLISECONDS, 512);
+        Timeout housekeeping = wheel.scheduleAtFixedRate(
+                () -> System.out.println("Daemon job running in background..."), 1, TimeUnit.SECONDS);
+
+        Thread userThread = new Thread(() -> {
+            System.out.println("User thread started");
+            sleep(3_000);
+            System.out.println("User thread finished");
+        });
+        userThread.start();
+        userThread.join();
+        System.out.println("Housekeeping cancelled: " + housekeeping.cancel()); // O(1), the wheel keeps running
+
+        // --- Benchmark at 10^6 pending timers ---
+        System.out.printf("%n%,d pending timers (delays 10..70 s, all cancelled)%n", timers);
+        System.out.println("scheduler                    | schedule ns/op | cancel ns/op");
+        benchWheel(wheel, timers);
+        benchStpe(timers);
+        wheel.close();
+        System.out.println("Main thread exiting (tick thread is a daemon: JVM does not wait for it)");
+    }
+
+    // =========================
+    // PUBLIC API
+    // =========================
+    public interface Timeout {
+        /** O(1); returns false if the task already ran or was already cancelled. */
+        boolean cancel();
+
+        boolean isExpired();
+
+        boolean isCancelled();
+    }
+
+    public static final class TimingWheel implements AutoCloseable {
+        private final long tickNanos;
+        private final Bucket[] wheel;
+        private final int mask;
+        private final long startNanos = System.nanoTime();
+
+        // Producers never touch buckets: they hand nodes to the tick thread through lock-free queues
+        private final Queue<Node> pending = new ConcurrentLinkedQueue<>();
+        private final Queue<Node> cancelled = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+
+        private final Thread worker;
+        private volatile boolean running = true;
+        private long tick; // tick-thread private
+
+        /**
+         * @param tick      resolution: a timeout fires within one tick after its deadline
+         * @param wheelSize buckets; rounded up to a power of two. Delays longer than
+         *                  tick × wheelSize just wait extra "rounds" in their bucket.
+         */
+        public TimingWheel(long tick, TimeUnit unit, int wheelSize) {
+            this.tickNanos = unit.toNanos(tick);
+            int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+            this.wheel = new Bucket[size];
+            for (int i = 0; i < size; i++) wheel[i] = new Bucket();
+            this.mask = size - 1;
+
+            worker = new Thread(this::run, "timing-wheel");
+            worker.setDaemon(true); // housekeeping must never keep the JVM alive
+            worker.start();
+        }
+
+        public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+            return scheduleAt(task, System.nanoTime() - startNanos + unit.toNanos(delay));
+        }
+
+        /**
+         * Re-arms itself after every run until cancelled or the wheel is closed. The next deadline
+         * is the previous DEADLINE + period (not "now + period"), so the task's own run time and
+         * the tick latency never accumulate into drift; a late run is followed by catch-up runs.
+         * A task that throws is not re-armed, as in ScheduledExecutorService.
+         *
+         * @return cancel() stops the re-arming and cancels the currently armed run, still O(1)
+         */
+        public Timeout scheduleAtFixedRate(Runnable task, long period, TimeUnit unit) {
+            long periodNanos = unit.toNanos(period);
+            Periodic periodic = new Periodic(task, periodNanos, System.nanoTime() - startNanos + periodNanos);
+            Node first = new Node(this, periodic, periodic.deadline);
+            periodic.armed = first; // before the node is visible to the tick thread
+            if (!enqueue(first)) throw new IllegalStateException("TimingWheel is closed");
+            return periodic;
+        }
+
+        private Node scheduleAt(Runnable task, long deadline) {
+            Node node = new Node(this, task, deadline);
+            if (!enqueue(node)) throw new IllegalStateException("TimingWheel is closed");
+            return node;
+        }
+
+        /** @return false if the wheel is closed */
+        private boolean enqueue(Node node) {
+            if (!running) return false;
+            pending.add(node); // O(1), lock-free
+            pendingCount.incrementAndGet();
+            return true;
+        }
+
+        /** A periodic task: one wheel node at a time, replaced by a new node after every run. */
+        private final class Periodic implements Runnable, Timeout {
+            private final Runnable task;
+            private final long periodNanos;
+            private long deadline;          // tick thread only (after construction)
+            private volatile Node armed;    // the node that will run next
+            private final AtomicBoolean cancelled = new AtomicBoolean();
+
+            Periodic(Runnable task, long periodNanos, long firstDeadline) {
+                this.task = task;
+                this.periodNanos = periodNanos;
+                this.deadline = firstDeadline;
+            }
+
+            @Override
+            public void run() {
+                if (cancelled.get()) return;
+                task.run();
+                deadline += periodNanos;
+                Node next = new Node(TimingWheel.this, this, deadline);
+                armed = next;
+                if (!enqueue(next)) return;              // the wheel closed meanwhile: just stop
+                if (cancelled.get()) next.cancel();      // cancel() raced with the re-arm and saw the old node
+            }
+
+            @Override
+            public boolean cancel() {
+                if (!cancelled.compareAndSet(false, true)) return false;
+                armed.cancel();
+                return true;
+            }
+
+            /** Never: a periodic task only ends through cancel() or close(). */
+            @Override public boolean isExpired() { return false; }
+            @Override public boolean isCancelled() { return cancelled.get(); }
+        }
+
+        public int pendingTimeouts() {
+            return pendingCount.get();
+        }
+
+        /** Stops the tick thread; an interrupted caller stops waiting for it (the thread is a daemon). */
+        @Override
+        public void close() {
+            running = false;
+            worker.interrupt();
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void run() {
+            while (running) {
+                long deadline = tickNanos * (tick + 1);
+                if (!sleepUntil(deadline)) break;
+
+                drainCancelled();
+                transferPending();
+                wheel[(int) (tick & mask)].expire(deadline);
+                tick++;
+            }
+        }
+
+        private boolean sleepUntil(long deadline) {
+            long remaining;
+            while ((remaining = deadline - (System.nanoTime() - startNanos)) > 0) {
+                LockSupport.parkNanos(remaining);
+                if (!running) return false;
+            }
+            return true;
+        }
+
+        private void transferPending() {
+            // Bounded per tick so a flood of schedule() calls cannot stall expiry
+            for (int i = 0; i < 100_000; i++) {
+                Node node = pending.poll();
+                if (node == null) return;
+                if (node.isCancelled()) continue;
+
+                long ticks = node.deadline / tickNanos;
+                node.remainingRounds = (ticks - tick) / wheel.length;
+                long slot = Math.max(ticks, tick); // already overdue -> this tick
+                wheel[(int) (slot & mask)].add(node);
+            }
+        }
+
+        private void drainCancelled() {
+            Node node;
+            while ((node = cancelled.poll()) != null) {
+                if (node.bucket != null) node.bucket.remove(node); // O(1): doubly linked
+            }
+        }
+    }
+
+    // =========================
+    // INTERNALS
+    // =========================
+    static final class Node implements Timeout {
+        static final int INIT = 0, CANCELLED = 1, EXPIRED = 2;
+        private static final VarHandle STATE;
+
+        static {
+            try {
+                STATE = MethodHandles.lookup().findVarHandle(Node.class, "state", int.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        final TimingWheel owner;
+        final Runnable task;
+        final long deadline; // nanos since wheel start
+        volatile int state;  // CAS via VarHandle: no AtomicInteger object per timer
+
+        // Touched only by the tick thread
+        long remainingRounds;
+        Node next, prev;
+        Bucket bucket;
+
+        Node(TimingWheel owner, Runnable task, long deadline) {
+            this.owner = owner;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, INIT, CANCELLED)) return false;
+            owner.cancelled.add(this); // the tick thread unlinks it; we never touch a bucket here
+            owner.pendingCount.decrementAndGet();
+            return true;
+        }
+
+        @Override public boolean isExpired() { return state == EXPIRED; }
+        @Override public boolean isCancelled() { return state == CANCELLED; }
+
+        void expire() {
+            if (!STATE.compareAndSet(this, INIT, EXPIRED)) return;
+            owner.pendingCount.decrementAndGet();
+            try {
+                task.run(); // runs ON the tick thread: keep it short or hand off to an executor
+            } catch (Throwable t) {
+                System.err.println("Timer task failed: " + t);
+            }
+        }
+    }
+
+    static final class Bucket {
+        private Node head, tail;
+
+        void add(Node node) {
+            node.bucket = this;
+            if (head == null) {
+                head = tail = node;
+            } else {
+                tail.next = node;
+                node.prev = tail;
+                tail = node;
+            }
+        }
+
+        void remove(Node node) {
+            if (node.prev != null) node.prev.next = node.next; else head = node.next;
+            if (node.next != null) node.next.prev = node.prev; else tail = node.prev;
+            node.next = node.prev = null;
+            node.bucket = null;
+        }
+
+        void expire(long deadline) {
+            Node node = head;
+            while (node != null) {
+                Node next = node.next;
+                if (node.remainingRounds <= 0 && node.deadline <= deadline) {
+                    remove(node);
+                    node.expire();
+                } else if (node.isCancelled()) {
+                    remove(node);
+                } else {
+                    node.remainingRounds--;
+                }
+                node = next;
+            }
+        }
+    }
+
+    // =========================
+    // BENCHMARK
+    // =========================
+    private static void benchWheel(TimingWheel wheel, int timers) {
+        Runnable noop = () -> {};
+        List<Timeout> handles = new ArrayList<>(timers);
+        long t0 = System.nanoTime();
+        for (int i = 0; i < timers; i++) handles.add(wheel.schedule(noop, 10 + (i % 60), TimeUnit.SECONDS));
+        long scheduled = System.nanoTime() - t0;
+        t0 = System.nanoTime();
+        for (Timeout t : handles) t.cancel();
+        long cancelled = System.nanoTime() - t0;
+        System.out.printf("%-28s | %14.1f | %12.1f%n", "TimingWheel (10 ms tick)",
+                (double) scheduled / timers, (double) cancelled / timers);
+    }
+
+    private static void benchStpe(int timers) throws InterruptedException {
+        ScheduledThreadPoolExecutor stpe = new ScheduledThreadPoolExecutor(1);
+        stpe.setRemoveOnCancelPolicy(true); // otherwise cancelled tasks stay in the heap until their deadline
+        Runnable noop = () -> {};
+        List<ScheduledFuture<?>> handles = new ArrayList<>(timers);
+        long t0 = System.nanoTime();
+        for (int i = 0; i < timers; i++) handles.add(stpe.schedule(noop, 10 + (i % 60), TimeUnit.SECONDS));
+        long scheduled = System.nanoTime() - t0;
+        t0 = System.nanoTime();
+        for (ScheduledFuture<?> f : handles) f.cancel(false);
+        long cancelled = System.nanoTime() - t0;
+        System.out.printf("%-28s | %14.1f | %12.1f%n", "ScheduledThreadPoolExecutor",
+                (double) scheduled / timers, (double) cancelled / timers);
+        stpe.shutdownNow();
+        stpe.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
+
+/*
+================================================================================
+HASHED TIMING WHEEL – DEEP DIVE
+================================================================================
+
+WHAT:
+-----
+A circular array of buckets ("clock face"). A pointer advances one bucket per tick;
+a timeout due in d ticks goes into bucket (now + d) % size with rounds = d / size.
+
+WHY IT EXISTS:
+--------------
+• One thread per housekeeping job (Java_12 style) → N sleeping threads.
+• ScheduledThreadPoolExecutor → binary heap: O(log n) schedule AND cancel,
+  and every operation takes the pool's lock.
+• Network stacks keep a timeout per connection / request → millions of timers,
+  almost all cancelled before they fire.
+
+INTERNAL WORKING:
+-----------------
+• schedule(): allocate node, push on a lock-free queue → O(1), no lock.
+• Tick thread (daemon): sleep to next tick → drain cancels → move pending nodes into
+  buckets → walk ONE bucket: rounds == 0 → run, else rounds--.
+• cancel(): CAS state, push on cancel queue → tick thread unlinks in O(1)
+  (doubly-linked bucket).
+• Only the tick thread touches buckets → no locks at all on the wheel.
+
+TIME COMPLEXITY / PERFORMANCE:
+-----------------------------
+• schedule / cancel: O(1)
+• Per tick: O(bucket size) — amortized O(n / wheelSize)
+• Precision = one tick (10 ms here) → perfect for timeouts, wrong for exact timing
+
+ENTERPRISE PITFALLS:
+-------------------
+❌ Long-running tasks on the tick thread → every other timeout is late
+❌ Tick too small → the tick thread spins; tick too large → imprecise timeouts
+❌ Wheel too small for long delays → many rounds, each bucket walk gets longer
+❌ Periodic re-arm as "now + period" → fixed DELAY, drifts by run time + tick latency
+
+REAL SYSTEM USAGE:
+-----------------
+✔ Netty HashedWheelTimer, Kafka's purgatory (hierarchical wheels)
+✔ Linux kernel timers (timer wheel)
+✔ Request / idle-connection timeouts, session expiry
+
+INTERVIEW ONE-LINER:
+-------------------
+"A timing wheel trades precision for O(1) timers: hash the deadline into a bucket and let
+one daemon thread sweep the clock face."
+================================================================================
+*/
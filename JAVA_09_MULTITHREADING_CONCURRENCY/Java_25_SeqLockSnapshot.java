@@ -0,0 +1,311 @@
+package JAVA_09_MULTITHREADING_CONCURRENCY;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Sequence lock (seqlock): consistent snapshots of a multi-field record
+ * (price + qty + timestamp) where readers NEVER write shared memory — no lock,
+ * no CAS, no allocation. Writers bump a version; readers retry if it moved.
+ */
+public class Java_25_SeqLockSnapshot {
+
+    public static void main(String[] args) throws InterruptedException {
+        int maxReaders = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        long millis = args.length > 1 ? Long.parseLong(args[1]) : 1_000;
+
+        // Demo
+        SeqLockQuote quote = new SeqLockQuote();
+        quote.write(101.25, 500, System.currentTimeMillis());
+        QuoteView view = new QuoteView();
+        quote.read(view);
+        System.out.printf("Snapshot: price=%.2f qty=%d ts=%d%n", view.price, view.qty, view.timestamp);
+
+        // Warm-up
+        for (QuoteStore store : stores()) run(store, 2, millis / 4);
+
+        System.out.println("\n1 writer, N readers, " + millis + " ms per run — reader Mreads/s (writer Mwrites/s) [torn]");
+        System.out.println("readers | SeqLock                  | ReadWriteLock            | AtomicReference<Quote>");
+        for (int readers = 1; readers <= maxReaders; readers <<= 1) {
+            StringBuilder row = new StringBuilder(String.format("%7d", readers));
+            for (QuoteStore store : stores()) row.append(String.format(" | %-24s", run(store, readers, millis)));
+            System.out.println(row.toString().stripTrailing());
+        }
+    }
+
+    // =========================
+    // SEQLOCK
+    // =========================
+    /**
+     * Even sequence = stable, odd = write in progress. Writers are serialized by a CAS on the
+     * sequence itself; readers only LOAD it, before and after copying the fields.
+     */
+    public static class SeqLock {
+        private static final VarHandle SEQUENCE;
+
+        static {
+            try {
+                SEQUENCE = MethodHandles.lookup().findVarHandle(SeqLock.class, "sequence", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private volatile long sequence;
+
+        /** Returns the odd sequence to pass to {@link #endWrite}. */
+        protected final long beginWrite() {
+            while (true) {
+                long s = sequence;
+                // CAS = volatile read + write: the field stores below can't move above it
+                if ((s & 1) == 0 && SEQUENCE.compareAndSet(this, s, s + 1)) return s + 1;
+                Thread.onSpinWait(); // another writer holds it
+            }
+        }
+
+        protected final void endWrite(long odd) {
+            SEQUENCE.setRelease(this, odd + 1); // field stores can't move below it
+        }
+
+        /** Waits out a writer in progress; returns an even stamp. */
+        protected final long readBegin() {
+            long s;
+            while (((s = (long) SEQUENCE.getAcquire(this)) & 1) != 0) Thread.onSpinWait();
+            return s;
+        }
+
+        /** True if no write started since {@code stamp} — the fields just copied are consistent. */
+        protected final boolean readValidate(long stamp) {
+            VarHandle.acquireFence(); // field loads can't move below the re-read (as in StampedLock.validate)
+            return (long) SEQUENCE.getOpaque(this) == stamp;
+        }
+    }
+
+    /** The record itself: plain primitive fields, guarded by the inherited sequence. */
+    public static final class SeqLockQuote extends SeqLock implements QuoteStore {
+        private double price;
+        private long qty;
+        private long timestamp;
+
+        @Override
+        public void write(double price, long qty, long timestamp) {
+            long odd = beginWrite();
+            this.price = price;
+            this.qty = qty;
+            this.timestamp = timestamp;
+            endWrite(odd);
+        }
+
+        /** Copies a consistent snapshot into the caller's (thread-local) view; retries on a concurrent write. */
+        @Override
+        public void read(QuoteView into) {
+            while (true) {
+                long stamp = readBegin();
+                double p = price;
+                long q = qty;
+                long t = timestamp;
+                if (readValidate(stamp)) {
+                    into.price = p;
+                    into.qty = q;
+                    into.timestamp = t;
+                    return;
+                }
+            }
+        }
+    }
+
+    // =========================
+    // COMMON API + BASELINES
+    // =========================
+    public interface QuoteStore {
+        void write(double price, long qty, long timestamp);
+
+        void read(QuoteView into);
+    }
+
+    /** Reader-owned, reused between reads → the read path allocates nothing. */
+    public static final class QuoteView {
+        public double price;
+        public long qty;
+        public long timestamp;
+    }
+
+    /** Java_4 style: every read takes the read lock (a CAS on the lock's shared state). */
+    static final class ReadWriteLockQuote implements QuoteStore {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private double price;
+        private long qty;
+        private long timestamp;
+
+        @Override
+        public void write(double price, long qty, long timestamp) {
+            lock.writeLock().lock();
+            try {
+                this.price = price;
+                this.qty = qty;
+                this.timestamp = timestamp;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public void read(QuoteView into) {
+            lock.readLock().lock();
+            try {
+                into.price = price;
+                into.qty = qty;
+                into.timestamp = timestamp;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    /** Copy-on-write: reads are one volatile load, but EVERY write allocates a new object. */
+    static final class AtomicReferenceQuote implements QuoteStore {
+        record Quote(double price, long qty, long timestamp) {}
+
+        private final AtomicReference<Quote> current = new AtomicReference<>(new Quote(0, 0, 0));
+
+        @Override
+        public void write(double price, long qty, long timestamp) {
+            current.set(new Quote(price, qty, timestamp));
+        }
+
+        @Override
+        public void read(QuoteView into) {
+            Quote q = current.get();
+            into.price = q.price();
+            into.qty = q.qty();
+            into.timestamp = q.timestamp();
+        }
+    }
+
+    // =========================
+    // BENCHMARK
+    // =========================
+    private static QuoteStore[] stores() {
+        return new QuoteStore[]{new SeqLockQuote(), new ReadWriteLockQuote(), new AtomicReferenceQuote()};
+    }
+
+    /**
+     * The writer stores (n, 2n, 3n); a reader that sees any other combination caught a torn
+     * snapshot. Returns "reads (writes) [torn]" formatted for the table.
+     */
+    private static String run(QuoteStore store, int readers, long millis) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        long[] reads = new long[readers];
+        long[] torn = new long[readers];
+        long[] writes = new long[1];
+        Thread[] threads = new Thread[readers + 1];
+
+        threads[0] = new Thread(() -> {
+            await(start);
+            long n = 0;
+            while (!Thread.currentThread().isInterrupted()) {
+                n++;
+                store.write(n, 2 * n, 3 * n);
+            }
+            writes[0] = n;
+        });
+        for (int r = 0; r < readers; r++) {
+            int id = r;
+            threads[r + 1] = new Thread(() -> {
+                await(start);
+                QuoteView view = new QuoteView();
+                long count = 0, bad = 0;
+                while (!Thread.currentThread().isInterrupted()) {
+                    store.read(view);
+                    long n = (long) view.price;
+                    if (view.qty != 2 * n || view.timestamp != 3 * n) bad++;
+                    count++;
+                }
+                reads[id] = count;
+                torn[id] = bad;
+            });
+        }
+        for (Thread t : threads) t.start();
+
+        long begin = System.nanoTime();
+        start.countDown();
+        TimeUnit.MILLISECONDS.sleep(millis);
+        for (Thread t : threads) t.interrupt();
+        for (Thread t : threads) t.join();
+        double micros = (System.nanoTime() - begin) / 1e3;
+
+        long totalReads = 0, totalTorn = 0;
+        for (int r = 0; r < readers; r++) {
+            totalReads += reads[r];
+            totalTorn += torn[r];
+        }
+        return String.format("%8.2f (%6.2f) [%d]", totalReads / micros, writes[0] / micros, totalTorn);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
+
+/*
+================================================================================
+SEQLOCK (SEQUENCE LOCK) – DEEP DIVE
+================================================================================
+
+WHAT:
+-----
+A version counter next to a group of plain fields:
+• Writer: seq++ (odd) → write fields → seq++ (even)
+• Reader: s = seq (wait while odd) → copy fields → still s? done : retry
+
+WHY IT EXISTS:
+--------------
+• price + qty + timestamp must be read TOGETHER (never price of tick 5 with qty of tick 6).
+• synchronized / ReentrantLock → readers block each other.
+• ReadWriteLock → readers run in parallel, but each readLock() CASes ONE shared
+  word → that cache line bounces between every reader core.
+• AtomicReference<Quote> → reads are cheap, but every write allocates (GC churn at
+  market-data rates).
+
+INTERNAL WORKING:
+-----------------
+• Readers only LOAD the sequence → the line stays shared in every core's cache.
+• acquireFence before the re-check: the field loads cannot be reordered after it
+  (exactly what StampedLock.validate() does).
+• Writers CAS even → odd, so several writers serialize on the same word.
+• A reader may see a half-written record — it is discarded, never returned.
+
+TIME COMPLEXITY / PERFORMANCE:
+-----------------------------
+• Read: 2 loads of the sequence + field copies, no stores, no allocation
+• Write: 1 CAS + 1 release store
+• Reader throughput scales with reader count; a writer is never blocked by readers
+
+ENTERPRISE PITFALLS:
+-------------------
+❌ Reading references and dereferencing them inside the retry loop → may follow a
+   half-updated pointer. Primitives (and copies) only.
+❌ Acting on values BEFORE validate() succeeds (throwing, indexing arrays with them)
+❌ Very frequent or long writes → readers starve, retrying forever
+❌ Many fields → copy cost grows; past a few cache lines use copy-on-write instead
+
+REAL SYSTEM USAGE:
+-----------------
+✔ Linux kernel seqlock_t (jiffies, gettimeofday data)
+✔ Market-data last-quote holders, telemetry gauges
+✔ StampedLock.tryOptimisticRead() is the same idea behind a lock API
+
+INTERVIEW ONE-LINER:
+-------------------
+"A seqlock lets readers check instead of lock: read the version, copy, re-read the version —
+readers never write, so they never contend."
+================================================================================
+*/
@@ -0,0 +1,424 @@
+package JAVA_09_MULTITHREADING_CONCURRENCY;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Admission control in front of a Java_8_ExecutorFramework style pool:
+ * a lock-free token bucket (rate) and an adaptive concurrency limiter (in-flight),
+ * so overload is rejected at the door instead of piling up in the LinkedBlockingQueue.
+ */
+public class Java_26_AdmissionControl {
+
+    public static void main(String[] args) throws Exception {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        long millis = args.length > 1 ? Long.parseLong(args[1]) : 2_000;
+
+        // --- Demo: 5 requests/sec, burst of 3 ---
+        TokenBucket bucket = new TokenBucket(5, 3);
+        StringBuilder admitted = new StringBuilder();
+        for (int i = 0; i < 6; i++) admitted.append(bucket.tryAcquire() ? 'Y' : 'n');
+        System.out.println("Burst of 6 against capacity 3: " + admitted + "  " + bucket.report());
+        System.out.println("Blocking acquire within 1 s: " + bucket.acquire(1, 1, TimeUnit.SECONDS) + "  " + bucket.report());
+
+        // --- tryAcquire overhead under contention ---
+        System.out.println("\ntryAcquire ns/op per thread     | TokenBucket (CAS) | synchronized bucket");
+        System.out.println("threads | admit   | reject  | admit   | reject");
+        for (int t = 1; t <= maxThreads; t <<= 1) {
+            System.out.printf("%7d | %7.1f | %7.1f | %7.1f | %7.1f%n", t,
+                    nanosPerAcquire(new TokenBucket(1e12, 1_000_000)::tryAcquire, t),
+                    nanosPerAcquire(new TokenBucket(1_000, 10)::tryAcquire, t),
+                    nanosPerAcquire(new SynchronizedBucket(1e12, 1_000_000)::tryAcquire, t),
+                    nanosPerAcquire(new SynchronizedBucket(1_000, 10)::tryAcquire, t));
+        }
+
+        // --- Overload: 4 workers x 2 ms = 2000 tasks/s capacity, offered 4000 tasks/s ---
+        System.out.println("\nOverload at 2x capacity for " + millis + " ms");
+        System.out.println("executor         | completed | rejected | p50 ms | p99 ms | final limit");
+        overload("unbounded queue", null, millis);
+        overload("AIMD limiter", LimitAlgorithm.aimd(), millis);
+        overload("Vegas limiter", LimitAlgorithm.vegas(), millis);
+    }
+
+    // =========================
+    // METRICS
+    // =========================
+    public interface AdmissionStats {
+        long getAcquiredCount();
+
+        long getRejectedCount();
+
+        /** Total time callers spent blocked waiting to be admitted. */
+        long getWaitMicros();
+    }
+
+    // =========================
+    // TOKEN BUCKET (lock-free, lazy refill)
+    // =========================
+    /**
+     * The whole bucket is ONE long: the virtual time at which the bucket will next be empty
+     * ("theoretical arrival time", as in GCRA). Tokens are never added by a timer: the
+     * refill is the distance between that time and now, computed on each call.
+     */
+    public static final class TokenBucket implements AdmissionStats {
+        private final long nanosPerToken;
+        private final long burstNanos;                  // capacity expressed as time
+        private final AtomicLong emptyAt = new AtomicLong(Long.MIN_VALUE / 2);
+        private final LongAdder acquired = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+
+        public TokenBucket(double tokensPerSecond, long capacity) {
+            this.nanosPerToken = Math.max(1, (long) (1e9 / tokensPerSecond));
+            this.burstNanos = nanosPerToken * capacity;
+        }
+
+        public boolean tryAcquire() {
+            return tryAcquire(1);
+        }
+
+        public boolean tryAcquire(int permits) {
+            long cost = permits * nanosPerToken;
+            while (true) {
+                long now = System.nanoTime();
+                long current = emptyAt.get();
+                long next = Math.max(current, now - burstNanos) + cost; // refill = clamp to "full"
+                if (next > now) {                                      // not enough tokens
+                    rejected.increment();
+                    return false;
+                }
+                if (emptyAt.compareAndSet(current, next)) {
+                    acquired.increment();
+                    return true;
+                }
+            }
+        }
+
+        /** Reserves tokens if they will be available within {@code timeout}, then sleeps until then. */
+        public boolean acquire(int permits, long timeout, TimeUnit unit) {
+            long cost = permits * nanosPerToken;
+            long maxWait = unit.toNanos(timeout);
+            while (true) {
+                long now = System.nanoTime();
+                long current = emptyAt.get();
+                long next = Math.max(current, now - burstNanos) + cost;
+                long wait = next - now;
+                if (wait > maxWait) {
+                    rejected.increment();
+                    return false;
+                }
+                if (emptyAt.compareAndSet(current, next)) { // reservation made: nobody can take these tokens
+                    acquired.increment();
+                    if (wait > 0) {
+                        waitNanos.add(wait);
+                        long deadline = now + wait;
+                        while ((wait = deadline - System.nanoTime()) > 0) LockSupport.parkNanos(wait);
+                    }
+                    return true;
+                }
+            }
+        }
+
+        /** Tokens available right now (may be stale the moment it returns). */
+        public long availableTokens() {
+            long now = System.nanoTime();
+            return (now - Math.max(emptyAt.get(), now - burstNanos)) / nanosPerToken;
+        }
+
+        @Override public long getAcquiredCount() { return acquired.sum(); }
+        @Override public long getRejectedCount() { return rejected.sum(); }
+        @Override public long getWaitMicros() { return waitNanos.sum() / 1_000; }
+
+        public String report() {
+            return String.format("[acquired=%d rejected=%d waited=%dus available=%d]",
+                    getAcquiredCount(), getRejectedCount(), getWaitMicros(), availableTokens());
+        }
+    }
+
+    /** Baseline: the textbook bucket — a lock, a token count and a refill timestamp. */
+    static final class SynchronizedBucket {
+        private final double tokensPerNano;
+        private final double capacity;
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+
+        SynchronizedBucket(double tokensPerSecond, long capacity) {
+            this.tokensPerNano = tokensPerSecond / 1e9;
+            this.capacity = capacity;
+            this.tokens = capacity;
+        }
+
+        synchronized boolean tryAcquire() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+            if (tokens < 1) return false;
+            tokens--;
+            return true;
+        }
+    }
+
+    // =========================
+    // ADAPTIVE CONCURRENCY LIMIT
+    // =========================
+    /** Computes the next limit from one completed task's round-trip time (queue wait + service). */
+    public interface LimitAlgorithm {
+        int update(int limit, int inFlight, long rttNanos);
+
+        /**
+         * Additive increase / multiplicative decrease: +1 while latency is fine and the
+         * limit is actually used, ×0.9 as soon as a task takes longer than the tolerance.
+         */
+        static LimitAlgorithm aimd() {
+            return new LimitAlgorithm() {
+                private long minRtt = Long.MAX_VALUE;
+
+                @Override
+                public int update(int limit, int inFlight, long rttNanos) {
+                    minRtt = Math.min(minRtt, rttNanos);
+                    if (rttNanos > 2 * minRtt + TimeUnit.MILLISECONDS.toNanos(5)) return (int) (limit * 0.9);
+                    return inFlight * 2 >= limit ? limit + 1 : limit;
+                }
+            };
+        }
+
+        /**
+         * TCP Vegas: queue ≈ limit × (1 − minRtt / rtt) is how many tasks are WAITING rather
+         * than running. Keep it between alpha and beta.
+         */
+        static LimitAlgorithm vegas() {
+            return new LimitAlgorithm() {
+                private long minRtt = Long.MAX_VALUE;
+                private final int alpha = 3, beta = 6;
+
+                @Override
+                public int update(int limit, int inFlight, long rttNanos) {
+                    minRtt = Math.min(minRtt, rttNanos);
+                    double queue = limit * (1 - (double) minRtt / rttNanos);
+                    if (queue < alpha && inFlight * 2 >= limit) return limit + 1;
+                    if (queue > beta) return limit - 1;
+                    return limit;
+                }
+            };
+        }
+    }
+
+    /**
+     * Wraps an ExecutorService: at most {@code limit} tasks queued + running; the rest is
+     * rejected immediately. The limit moves with measured latency.
+     */
+    public static final class AdaptiveLimitedExecutor implements Executor, AdmissionStats, AutoCloseable {
+        private final ExecutorService delegate;
+        private final LimitAlgorithm algorithm;
+        private final int minLimit, maxLimit;
+        private final ResizableSemaphore permits;
+        private final LongAdder acquired = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private int limit; // guarded by this
+
+        public AdaptiveLimitedExecutor(ExecutorService delegate, LimitAlgorithm algorithm,
+                                       int initialLimit, int minLimit, int maxLimit) {
+            this.delegate = delegate;
+            this.algorithm = algorithm;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.limit = initialLimit;
+            this.permits = new ResizableSemaphore(initialLimit);
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            if (!permits.tryAcquire()) {
+                rejected.increment();
+                throw new RejectedExecutionException("concurrency limit reached: " + getLimit());
+            }
+            acquired.increment();
+            long start = System.nanoTime();
+            try {
+                delegate.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        onComplete(System.nanoTime() - start);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        private void onComplete(long rttNanos) {
+            synchronized (this) { // once per task, not per tryAcquire: cheap next to the task itself
+                int inFlight = limit - permits.availablePermits();
+                int next = Math.max(minLimit, Math.min(maxLimit, algorithm.update(limit, inFlight, rttNanos)));
+                if (next > limit) permits.release(next - limit);
+                else if (next < limit) permits.reducePermits(limit - next); // may go negative: drains naturally
+                limit = next;
+            }
+            permits.release();
+        }
+
+        public synchronized int getLimit() {
+            return limit;
+        }
+
+        @Override public long getAcquiredCount() { return acquired.sum(); }
+        @Override public long getRejectedCount() { return rejected.sum(); }
+        @Override public long getWaitMicros() { return 0; } // never blocks: admit or reject
+
+        /** Lets admitted tasks finish; an interrupted caller cancels them instead (like ExecutorService.close()). */
+        @Override
+        public void close() {
+            delegate.shutdown();
+            try {
+                delegate.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                delegate.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /** Semaphore.reducePermits is protected: shrinking a limit needs a subclass. */
+        static final class ResizableSemaphore extends Semaphore {
+            ResizableSemaphore(int permits) {
+                super(permits);
+            }
+
+            @Override
+            protected void reducePermits(int reduction) {
+                super.reducePermits(reduction);
+            }
+        }
+    }
+
+    // =========================
+    // BENCHMARK
+    // =========================
+    private static double nanosPerAcquire(BooleanSupplier tryAcquire, int threads)
+            throws InterruptedException {
+        int ops = 2_000_000 / threads + 10_000;
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        long[] elapsed = new long[threads];
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long t0 = System.nanoTime();
+                for (int i = 0; i < ops; i++) tryAcquire.getAsBoolean();
+                elapsed[id] = System.nanoTime() - t0;
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread w : workers) w.join();
+        return (double) Arrays.stream(elapsed).sum() / ((long) ops * threads);
+    }
+
+    private static void overload(String name, LimitAlgorithm algorithm, long millis) throws Exception {
+        ThreadPoolExecutor pool = (ThreadPoolExecutor) Executors.newFixedThreadPool(4); // unbounded queue
+        AdaptiveLimitedExecutor limited = algorithm == null ? null
+                : new AdaptiveLimitedExecutor(pool, algorithm, 8, 4, 1_000);
+        Executor front = limited == null ? pool : limited;
+
+        long[] latencies = new long[(int) (millis * 4) + 16];
+        LongAdder completed = new LongAdder();
+        AtomicLong index = new AtomicLong();
+        int rejected = 0;
+        long interval = TimeUnit.MICROSECONDS.toNanos(250); // 4000 tasks/s
+        long next = System.nanoTime();
+        long end = next + TimeUnit.MILLISECONDS.toNanos(millis);
+        while (next < end) {
+            LockSupport.parkNanos(next - System.nanoTime());
+            long submitted = System.nanoTime();
+            try {
+                front.execute(() -> {
+                    LockSupport.parkNanos(2_000_000); // 2 ms of "I/O"
+                    int i = (int) index.getAndIncrement();
+                    if (i < latencies.length) latencies[i] = System.nanoTime() - submitted;
+                    completed.increment();
+                });
+            } catch (RejectedExecutionException e) {
+                rejected++;
+            }
+            next += interval;
+        }
+        pool.shutdown();
+        pool.awaitTermination(5, TimeUnit.MINUTES);
+
+        long[] sorted = Arrays.copyOf(latencies, (int) Math.min(latencies.length, index.get()));
+        Arrays.sort(sorted);
+        System.out.printf("%-16s | %9d | %8d | %6.1f | %6.1f | %s%n", name, completed.sum(), rejected,
+                sorted[sorted.length / 2] / 1e6, sorted[(int) (sorted.length * 0.99)] / 1e6,
+                limited == null ? "-" : limited.getLimit());
+    }
+}
+
+/*
+================================================================================
+ADMISSION CONTROL – DEEP DIVE
+================================================================================
+
+WHAT:
+-----
+• TokenBucket             → "at most R requests/sec, bursts up to B"
+• AdaptiveLimitedExecutor → "at most L requests in flight", L learned from latency
+
+WHY IT EXISTS:
+--------------
+• Executors.newFixedThreadPool → unbounded LinkedBlockingQueue.
+• Offered load > capacity → the queue grows forever, latency grows forever,
+  eventually OutOfMemoryError. Every queued request is already too late.
+• Rejecting early (HTTP 429 / 503) keeps latency flat for the requests you DO accept.
+
+INTERNAL WORKING:
+-----------------
+• Token bucket as ONE AtomicLong: emptyAt = virtual time the bucket runs dry.
+  - refill  = max(emptyAt, now − burst)   (no timer thread, no token counter)
+  - admit   = refill + cost ≤ now → CAS emptyAt forward
+  - acquire(timeout) → CAS a reservation in the future, then park until it
+• Concurrency limit = Little's law: in-flight = throughput × latency.
+  - AIMD:  latency OK → limit + 1; latency spikes → limit × 0.9
+  - Vegas: estimated queue = L × (1 − minRTT / RTT); grow below 3, shrink above 6
+  - Semaphore holds the permits; resizing = release(n) / reducePermits(n)
+
+TIME COMPLEXITY / PERFORMANCE:
+-----------------------------
+• tryAcquire: O(1), one CAS, no allocation; counters are LongAdders
+• Rejected calls never CAS → a saturated bucket is read-mostly
+• synchronized bucket → all callers serialize on one monitor
+
+ENTERPRISE PITFALLS:
+-------------------
+❌ Rate limit without concurrency limit → slow backend still piles up in-flight work
+❌ Retrying rejected calls immediately → amplifies the overload
+❌ minRTT never reset → a permanent shift in latency looks like congestion forever
+❌ Per-instance limits with autoscaling → the global rate changes with instance count
+
+REAL SYSTEM USAGE:
+-----------------
+✔ Guava RateLimiter, Bucket4j, Resilience4j RateLimiter
+✔ Netflix concurrency-limits (AIMD, Vegas, Gradient)
+✔ API gateways (NGINX limit_req, Envoy local rate limit)
+
+INTERVIEW ONE-LINER:
+-------------------
+"A queue is not a capacity plan — admit by rate and by in-flight count, and reject the rest early."
+================================================================================
+*/
@@ -0,0 +1,315 @@
+package JAVA_09_MULTITHREADING_CONCURRENCY;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.management.ObjectName;
+
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Always-on lock-contention profiler: streams JFR's monitor-enter, monitor-wait and
+ * thread-park events in-process and aggregates blocked time per (event, lock class, call site).
+ * Measures what the Java_3_Synchronization / Java_5_DeadlockDemo notes only describe.
+ */
+public class Java_27_ContentionProfiler {
+
+    private static final Object HOT_MONITOR = new Object();
+    private static final ReentrantLock HOT_LOCK = new ReentrantLock();
+
+    public static void main(String[] args) throws Exception {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 3_000;
+
+        // --- Overhead: same contended workload with and without the profiler ---
+        contendedOpsPerSec(millis / 2); // JIT warm-up
+        double baseline = contendedOpsPerSec(millis);
+        ContentionProfiler profiler = ContentionProfiler.start(Duration.ofMillis(10));
+        TimeUnit.SECONDS.sleep(1); // JFR start-up (class loading, first chunk) is a one-off, not steady state
+        double profiled = contendedOpsPerSec(millis);
+        System.out.printf("Contended synchronized workload: %.0f ops/s without, %.0f ops/s with profiler (%+.2f%%)%n",
+                baseline, profiled, (profiled - baseline) * 100 / baseline);
+
+        // --- Hot spots: synchronized, ReentrantLock and wait() ---
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            threads.add(new Thread(Java_27_ContentionProfiler::slowSynchronized, "sync-" + i));
+            threads.add(new Thread(Java_27_ContentionProfiler::slowReentrantLock, "lock-" + i));
+        }
+        threads.add(new Thread(Java_27_ContentionProfiler::waitForSignal, "waiter"));
+        for (Thread t : threads) t.start();
+        for (Thread t : threads) t.join();
+
+        TimeUnit.SECONDS.sleep(2); // let the stream flush the last chunk
+        System.out.println("\n" + profiler.report(10));
+        System.out.println("Also visible in JConsole as " + profiler.objectName());
+        profiler.close();
+    }
+
+    // =========================
+    // JMX VIEW
+    // =========================
+    public interface ContentionProfilerMXBean {
+        long getEventCount();
+
+        long getTotalBlockedMillis();
+
+        /** One line per hot spot, most blocked time first. */
+        String[] getTopHotSpots();
+    }
+
+    // =========================
+    // PROFILER
+    // =========================
+    public static final class ContentionProfiler implements ContentionProfilerMXBean, AutoCloseable {
+        static final String MONITOR_ENTER = "jdk.JavaMonitorEnter";
+        static final String MONITOR_WAIT = "jdk.JavaMonitorWait";
+        static final String THREAD_PARK = "jdk.ThreadPark";
+
+        private final RecordingStream stream = new RecordingStream();
+        private final Map<HotSpot, Stats> stats = new ConcurrentHashMap<>();
+        private final LongAdder events = new LongAdder();
+        private final LongAdder blockedNanos = new LongAdder();
+        private ObjectName objectName;
+
+        private ContentionProfiler() {
+        }
+
+        /**
+         * @param threshold only blocks longer than this are recorded. This is the overhead knob:
+         *                  short, uncontended acquisitions never become events at all.
+         */
+        public static ContentionProfiler start(Duration threshold) {
+            ContentionProfiler p = new ContentionProfiler();
+            for (String event : new String[]{MONITOR_ENTER, MONITOR_WAIT, THREAD_PARK}) {
+                p.stream.enable(event).withThreshold(threshold).withStackTrace();
+                p.stream.onEvent(event, p::record);
+            }
+            p.stream.setMaxAge(Duration.ofSeconds(10)); // in-memory only: nothing piles up on disk
+            p.stream.startAsync();
+            p.register();
+            return p;
+        }
+
+        /** Runs on the stream's single dispatch thread. */
+        private void record(RecordedEvent e) {
+            String type = e.getEventType().getName();
+            RecordedClass lock = e.getClass(type.equals(THREAD_PARK) ? "parkedClass" : "monitorClass");
+            if (lock == null) return;  // parkNanos() without a blocker object: a sleep, not a lock
+            String site = callSite(e.getStackTrace());
+            if (site == null) return;  // JDK-internal waits (including JFR's own threads)
+            HotSpot key = new HotSpot(shortName(type), lock.getName(), site);
+            long nanos = e.getDuration().toNanos();
+            stats.computeIfAbsent(key, k -> new Stats()).add(nanos);
+            events.increment();
+            blockedNanos.add(nanos);
+        }
+
+        /** First frame outside the JDK: the application line that asked for the lock. Null if none. */
+        private static String callSite(RecordedStackTrace trace) {
+            if (trace == null) return null;
+            for (RecordedFrame f : trace.getFrames()) {
+                String type = f.getMethod().getType().getName();
+                if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                    return type + "." + f.getMethod().getName() + ":" + f.getLineNumber();
+                }
+            }
+            return null;
+        }
+
+        private static String shortName(String eventType) {
+            return eventType.substring("jdk.".length());
+        }
+
+        public List<Map.Entry<HotSpot, Stats>> top(int n) {
+            return stats.entrySet().stream()
+                    .sorted(Comparator.comparingLong((Map.Entry<HotSpot, Stats> en) -> en.getValue().nanos.sum()).reversed())
+                    .limit(n)
+                    .toList();
+        }
+
+        public String report(int n) {
+            StringBuilder sb = new StringBuilder(String.format("Top %d contention hot spots (%d events, %d ms blocked)%n",
+                    n, getEventCount(), getTotalBlockedMillis()));
+            sb.append(String.format("%-17s | %6s | %9s | %7s | %s%n",
+                    "event", "count", "total ms", "max ms", "lock class @ call site"));
+            for (Map.Entry<HotSpot, Stats> en : top(n)) sb.append(line(en)).append(System.lineSeparator());
+            return sb.toString();
+        }
+
+        private static String line(Map.Entry<HotSpot, Stats> en) {
+            HotSpot h = en.getKey();
+            Stats s = en.getValue();
+            return String.format("%-17s | %6d | %9.1f | %7.1f | %s @ %s", h.event(),
+                    s.count.sum(), s.nanos.sum() / 1e6, s.maxNanos / 1e6, h.lockClass(), h.callSite());
+        }
+
+        @Override public long getEventCount() { return events.sum(); }
+        @Override public long getTotalBlockedMillis() { return blockedNanos.sum() / 1_000_000; }
+
+        @Override
+        public String[] getTopHotSpots() {
+            return top(20).stream().map(ContentionProfiler::line).toArray(String[]::new);
+        }
+
+        private void register() {
+            try {
+                objectName = new ObjectName("JAVA_09:type=ContentionProfiler");
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            } catch (Exception e) {
+                throw new IllegalStateException("Could not register contention profiler MBean", e);
+            }
+        }
+
+        public ObjectName objectName() {
+            return objectName;
+        }
+
+        @Override
+        public void close() {
+            stream.close();
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (Exception ignored) {
+                // already gone
+            }
+        }
+    }
+
+    public record HotSpot(String event, String lockClass, String callSite) {}
+
+    public static final class Stats {
+        final LongAdder count = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+        volatile long maxNanos; // single writer: the stream's dispatch thread
+
+        void add(long n) {
+            count.increment();
+            nanos.add(n);
+            if (n > maxNanos) maxNanos = n;
+        }
+    }
+
+    // =========================
+    // WORKLOADS
+    // =========================
+    /** Java_3 style counter, hammered by 8 threads: mostly short, uncontended-or-spinning holds. */
+    private static double contendedOpsPerSec(long millis) throws InterruptedException {
+        Java_3_Synchronization counter = new Java_3_Synchronization();
+        Thread[] workers = new Thread[8];
+        long[] ops = new long[workers.length];
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        for (int t = 0; t < workers.length; t++) {
+            int id = t;
+            workers[t] = new Thread(() -> {
+                long n = 0;
+                while (System.nanoTime() < end) {
+                    counter.increment(); // synchronized, 1000 increments per call
+                    n++;
+                }
+                ops[id] = n;
+            });
+            workers[t].start();
+        }
+        long total = 0;
+        for (int t = 0; t < workers.length; t++) {
+            workers[t].join();
+            total += ops[t];
+        }
+        return total * 1000.0 / millis;
+    }
+
+    private static void slowSynchronized() {
+        for (int i = 0; i < 20; i++) {
+            synchronized (HOT_MONITOR) { // hot spot #1: 5 ms under a monitor
+                LockSupport.parkNanos(5_000_000);
+            }
+        }
+    }
+
+    private static void slowReentrantLock() {
+        for (int i = 0; i < 20; i++) {
+            HOT_LOCK.lock(); // hot spot #2: shows up as ThreadPark on the lock's sync class
+            try {
+                LockSupport.parkNanos(3_000_000);
+            } finally {
+                HOT_LOCK.unlock();
+            }
+        }
+    }
+
+    private static void waitForSignal() {
+        synchronized (HOT_MONITOR) {
+            try {
+                HOT_MONITOR.wait(200); // nobody notifies: a 200 ms JavaMonitorWait
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
+
+/*
+================================================================================
+LOCK-CONTENTION PROFILING WITH JFR STREAMING – DEEP DIVE
+================================================================================
+
+WHAT:
+-----
+An in-process profiler built on JDK Flight Recorder events:
+• jdk.JavaMonitorEnter → thread BLOCKED entering synchronized
+• jdk.JavaMonitorWait  → thread inside Object.wait()
+• jdk.ThreadPark       → LockSupport.park (ReentrantLock, Condition, queues...)
+Aggregated per (event, lock class, first application frame) → top-N report + MXBean.
+
+WHY IT EXISTS:
+--------------
+• "synchronized is slow" is a guess; "OrderBook.update:42 blocked 12 s/min" is a fact.
+• Thread dumps show ONE moment; contention is a rate over time.
+• Async profilers need an agent / native lib; JFR ships with the JDK.
+
+INTERNAL WORKING:
+-----------------
+• RecordingStream = JFR recording + in-process consumer (no file, no jcmd).
+• JVM writes events into thread-local buffers → flushed about once a second →
+  handlers run on ONE dispatch thread (so the aggregation needs no locks).
+• withThreshold(10 ms): blocks shorter than that are never even recorded
+  → overhead is proportional to CONTENTION, not to lock operations.
+• withStackTrace(): stack is captured only for events that pass the threshold.
+
+TIME COMPLEXITY / PERFORMANCE:
+-----------------------------
+• Uncontended / short locks: zero events → ~zero cost
+• Per recorded event: stack walk + one map update on the dispatch thread
+• JFR "default" profile is designed for < 1% overhead in production
+
+ENTERPRISE PITFALLS:
+-------------------
+❌ Threshold 0 → millions of events, the profiler becomes the contention
+❌ JavaMonitorWait / ThreadPark also fire for IDLE waits (pool workers waiting for
+   work) → read them per call site, not as a single total
+❌ Reporting only lock CLASS → every ReentrantLock looks the same; keep the call site
+
+REAL SYSTEM USAGE:
+-----------------
+✔ JDK Mission Control "Lock Instances" page (same events, offline)
+✔ Continuous profiling agents (Datadog, Pyroscope) streaming JFR
+✔ Custom health endpoints: "top 5 contended locks in the last minute"
+
+INTERVIEW ONE-LINER:
+-------------------
+"Don't guess which lock is hot — stream JFR's monitor and park events and rank call sites by blocked time."
+================================================================================
+*/
@@ -0,0 +1,336 @@
+package JAVA_09_MULTITHREADING_CONCURRENCY;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Exchanger;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Multi-stage batch pipeline: one thread per stage, neighbours swap pre-allocated buffers
+ * through an Exchanger (stage N fills B while stage N+1 drains A), a Phaser tracks the job.
+ * Buffers circulate forever → zero allocation per item.
+ */
+public class Java_28_DoubleBufferedPipeline {
+
+    static final int KEYS = 64;
+
+    public static void main(String[] args) throws Exception {
+        int lines = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : 4_096;
+
+        byte[] input = generate(lines);
+        System.out.printf("parse -> transform -> aggregate over %,d lines (%,d KB)%n", lines, input.length / 1024);
+        System.out.println("engine                         | ms     | Mlines/s | allocated MB | checksum");
+        for (int round = 0; round < 3; round++) { // first rounds are JIT warm-up; the last one counts
+            boolean print = round == 2;
+            measure("single thread", print, lines, () -> runSequential(input, batchSize));
+            measure("double-buffered pipeline", print, lines, () -> runPipeline(input, batchSize));
+            measure("CompletableFuture per item", print, lines, () -> runPerItem(input));
+        }
+    }
+
+    // =========================
+    // ENGINE
+    // =========================
+    /** First stage: fills an empty buffer; returns false once the input is exhausted. */
+    @FunctionalInterface
+    public interface Source<B> {
+        boolean fill(B buffer) throws Exception;
+    }
+
+    /** Middle or last stage: works on a full buffer in place. */
+    @FunctionalInterface
+    public interface Stage<B> {
+        void process(B buffer) throws Exception;
+    }
+
+    public static final class BatchPipeline<B> {
+        private final Supplier<B> bufferFactory;
+        private final Source<B> source;
+        private final List<Stage<B>> stages = new ArrayList<>();
+
+        public BatchPipeline(Supplier<B> bufferFactory, Source<B> source) {
+            this.bufferFactory = bufferFactory;
+            this.source = source;
+        }
+
+        public BatchPipeline<B> then(Stage<B> stage) {
+            stages.add(stage);
+            return this;
+        }
+
+        /** Runs the job to completion; the first stage failure is rethrown here. */
+        public void run() throws ExecutionException, InterruptedException {
+            int threads = stages.size() + 1;
+            List<Exchanger<Slot<B>>> links = new ArrayList<>();
+            for (int i = 0; i < stages.size(); i++) links.add(new Exchanger<>());
+
+            Phaser job = new Phaser(1); // main thread + one party per stage thread
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            List<Thread> workers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int index = i;
+                Slot<B> own = new Slot<>(bufferFactory.get()); // each stage owns one buffer at any time
+                job.register();
+                Thread t = new Thread(() -> {
+                    try {
+                        if (index == 0) runSource(own, links.get(0));
+                        else runStage(index, own, links);
+                    } catch (InterruptedException e) {
+                        // another stage failed and cancelled us
+                    } catch (Throwable e) {
+                        if (failure.compareAndSet(null, e)) workers.forEach(Thread::interrupt);
+                    } finally {
+                        job.arriveAndDeregister();
+                    }
+                }, "pipeline-stage-" + i);
+                workers.add(t);
+            }
+            workers.forEach(Thread::start);
+            job.arriveAndAwaitAdvance();
+            if (failure.get() != null) throw new ExecutionException("pipeline stage failed", failure.get());
+        }
+
+        private void runSource(Slot<B> slot, Exchanger<Slot<B>> downstream) throws Exception {
+            boolean more = true;
+            while (more) {
+                more = source.fill(slot.buffer);
+                slot.last = !more;
+                slot = downstream.exchange(slot); // hand over the full one, get an empty one back
+            }
+        }
+
+        private void runStage(int index, Slot<B> slot, List<Exchanger<Slot<B>>> links) throws Exception {
+            Exchanger<Slot<B>> upstream = links.get(index - 1);
+            Exchanger<Slot<B>> downstream = index < links.size() ? links.get(index) : null;
+            Stage<B> stage = stages.get(index - 1);
+            while (true) {
+                slot = upstream.exchange(slot); // give back a drained buffer, take a full one
+                stage.process(slot.buffer);
+                boolean last = slot.last;
+                if (downstream != null) slot = downstream.exchange(slot);
+                if (last) return;
+            }
+        }
+
+        /** A buffer plus the end-of-stream flag; allocated once per stage, not per batch. */
+        static final class Slot<B> {
+            final B buffer;
+            boolean last; // published by the Exchanger's happens-before edge
+
+            Slot(B buffer) {
+                this.buffer = buffer;
+            }
+        }
+    }
+
+    // =========================
+    // THE NIGHTLY JOB: "id,amount\n" -> convert -> sum per key
+    // =========================
+    /** Structure of arrays: one batch = two primitive arrays, reused forever. */
+    static final class Batch {
+        final long[] ids;
+        final long[] amounts;
+        int size;
+
+        Batch(int capacity) {
+            ids = new long[capacity];
+            amounts = new long[capacity];
+        }
+    }
+
+    /** Parses straight from the byte[] into the batch: no String, no boxing. */
+    static final class Parser implements Source<Batch> {
+        private final byte[] input;
+        private int pos;
+
+        Parser(byte[] input) {
+            this.input = input;
+        }
+
+        @Override
+        public boolean fill(Batch b) {
+            int n = 0;
+            while (n < b.ids.length && pos < input.length) {
+                long id = 0, amount = 0;
+                byte c;
+                while ((c = input[pos++]) != ',') id = id * 10 + (c - '0');
+                while ((c = input[pos++]) != '\n') amount = amount * 10 + (c - '0');
+                b.ids[n] = id;
+                b.amounts[n] = amount;
+                n++;
+            }
+            b.size = n;
+            return pos < input.length;
+        }
+    }
+
+    static long transform(long amount) {
+        return amount * 109 / 100 + (amount & 7); // "currency conversion + fee"
+    }
+
+    static void transformBatch(Batch b) {
+        for (int i = 0; i < b.size; i++) b.amounts[i] = transform(b.amounts[i]);
+    }
+
+    private static long runSequential(byte[] input, int batchSize) {
+        Parser parser = new Parser(input);
+        Batch b = new Batch(batchSize);
+        long[] totals = new long[KEYS];
+        boolean more = true;
+        while (more) {
+            more = parser.fill(b);
+            transformBatch(b);
+            for (int i = 0; i < b.size; i++) totals[(int) (b.ids[i] % KEYS)] += b.amounts[i];
+        }
+        return checksum(totals);
+    }
+
+    private static long runPipeline(byte[] input, int batchSize) throws Exception {
+        long[] totals = new long[KEYS]; // written only by the aggregate stage thread
+        new BatchPipeline<>(() -> new Batch(batchSize), new Parser(input))
+                .then(Java_28_DoubleBufferedPipeline::transformBatch)
+                .then(b -> {
+                    for (int i = 0; i < b.size; i++) totals[(int) (b.ids[i] % KEYS)] += b.amounts[i];
+                })
+                .run(); // Phaser advance = happens-before: totals are visible here
+        return checksum(totals);
+    }
+
+    record Row(long id, long amount) {}
+
+    /** What the join()-chain jobs do: one future chain per line. */
+    private static long runPerItem(byte[] input) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        AtomicLongArray totals = new AtomicLongArray(KEYS);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < input.length; i++) {
+            if (input[i] != '\n') continue;
+            int from = start, to = i;
+            futures.add(CompletableFuture.supplyAsync(() -> parseLine(input, from, to), pool)
+                    .thenApplyAsync(r -> new Row(r.id(), transform(r.amount())), pool)
+                    .thenAcceptAsync(r -> totals.addAndGet((int) (r.id() % KEYS), r.amount()), pool));
+            start = i + 1;
+        }
+        for (CompletableFuture<Void> f : futures) f.join();
+        pool.shutdown();
+        long[] copy = new long[KEYS];
+        for (int k = 0; k < KEYS; k++) copy[k] = totals.get(k);
+        return checksum(copy);
+    }
+
+    private static Row parseLine(byte[] input, int from, int to) {
+        String line = new String(input, from, to - from, StandardCharsets.US_ASCII);
+        int comma = line.indexOf(',');
+        return new Row(Long.parseLong(line, 0, comma, 10), Long.parseLong(line, comma + 1, line.length(), 10));
+    }
+
+    // =========================
+    // BENCHMARK HELPERS
+    // =========================
+    @FunctionalInterface
+    interface Job {
+        long run() throws Exception;
+    }
+
+    private static byte[] generate(int lines) {
+        StringBuilder sb = new StringBuilder(lines * 16);
+        long seed = 42;
+        for (int i = 0; i < lines; i++) {
+            seed = seed * 6364136223846793005L + 1442695040888963407L;
+            sb.append(i).append(',').append((seed >>> 40) % 100_000).append('\n');
+        }
+        return sb.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static void measure(String name, boolean print, int lines, Job job) throws Exception {
+        System.gc();
+        long bytes0 = allocatedBytes();
+        long t0 = System.nanoTime();
+        long checksum = job.run();
+        long nanos = System.nanoTime() - t0;
+        long allocated = allocatedBytes() - bytes0;
+        if (print) {
+            System.out.printf("%-30s | %6d | %8.2f | %12.1f | %d%n", name, nanos / 1_000_000,
+                    lines / (nanos / 1e3), allocated / 1e6, checksum);
+        }
+    }
+
+    /** Bytes allocated by all threads since JVM start, terminated pool/stage threads included. */
+    private static long allocatedBytes() {
+        return ManagementFactory.getThreadMXBean() instanceof ThreadMXBean mx ? mx.getTotalThreadAllocatedBytes() : 0;
+    }
+
+    private static long checksum(long[] totals) {
+        long h = 0;
+        for (long t : totals) h = h * 31 + t;
+        return h;
+    }
+}
+
+/*
+================================================================================
+DOUBLE-BUFFERED BATCH PIPELINE – DEEP DIVE
+================================================================================
+
+WHAT:
+-----
+parse ──Exchanger──► transform ──Exchanger──► aggregate
+• One thread per stage, each owning ONE buffer at a time.
+• exchange(full) → get(empty): the two neighbours swap buffers at a rendezvous.
+• While transform works on buffer A, parse already fills buffer B.
+
+WHY IT EXISTS:
+--------------
+• join() chains / one CompletableFuture per record:
+  - ~3 task submissions + future objects + a boxed record PER LINE
+  - work bounces between pool threads → cold caches
+• Batch jobs don't need per-item futures: they need stages overlapping in time.
+
+INTERNAL WORKING:
+-----------------
+• Exchanger = two-party rendezvous; exchange() gives happens-before in BOTH
+  directions → buffer contents need no volatile / locks.
+• Buffers are structure-of-arrays (long[] ids, long[] amounts) → no object per item.
+• Number of buffers = number of stages; they circulate forever.
+• End of stream = "last" flag on the slot, forwarded stage by stage.
+• Phaser: every stage thread is a party; main arrives and awaits → job done.
+  First failure interrupts all other stages (they may be parked in exchange()).
+
+TIME COMPLEXITY / PERFORMANCE:
+-----------------------------
+• Throughput = slowest stage (classic pipeline); latency = sum of stages per batch
+• Per batch: one exchange per link (two thread hand-offs), amortized over 4096 items
+• Allocation per item: zero (vs several objects per item for the future chain)
+
+ENTERPRISE PITFALLS:
+-------------------
+❌ Unbalanced stages → fast stages just wait in exchange(); split the slow one
+❌ Batch too small → exchange cost dominates; too large → poor overlap, cache misses
+❌ Keeping a reference to a buffer after exchange() → the neighbour is rewriting it
+❌ More stages than cores → stages time-slice instead of overlapping
+
+REAL SYSTEM USAGE:
+-----------------
+✔ Graphics double buffering, audio/video frame pipelines
+✔ Spring Batch chunk processing, ETL readers/processors/writers
+✔ Disruptor-style staged event processing (see Java_17 ring buffer)
+
+INTERVIEW ONE-LINER:
+-------------------
+"Pipeline batches, not items: each stage owns one buffer and swaps it with its neighbour,
+so stages overlap and nothing is allocated per record."
+================================================================================
+*/
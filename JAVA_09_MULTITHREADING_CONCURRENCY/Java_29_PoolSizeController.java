@@ -0,0 +1,317 @@
+package JAVA_09_MULTITHREADING_CONCURRENCY;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import com.sun.management.OperatingSystemMXBean;
+
+/**
+ * Self-tuning pool size: instead of Executors.newFixedThreadPool(3) from Java_8_ExecutorFramework,
+ * a controller samples throughput, queueing delay and CPU every interval and hill-climbs
+ * corePoolSize toward the size with the best throughput (the .NET thread-pool idea).
+ */
+public class Java_29_PoolSizeController {
+
+    public static void main(String[] args) throws Exception {
+        long phaseMillis = args.length > 0 ? Long.parseLong(args[0]) : 3_000;
+        Workload[] phases = {Workload.CPU_BOUND, Workload.BLOCKING, Workload.MIXED, Workload.CPU_BOUND};
+        int[] staticSizes = {1, 4, 16, 64};
+
+        System.out.printf("Saturated pool, workload shifts every %d ms: %s%n", phaseMillis, List.of(phases));
+        System.out.print("pool            ");
+        for (Workload w : phases) System.out.printf("| %-10s tasks/s ", w);
+        System.out.println("| total tasks");
+
+        double[] best = new double[phases.length];
+        for (int size : staticSizes) {
+            ThreadPoolExecutor pool = newPool(size);
+            double[] tput = simulate(pool, null, phases, phaseMillis);
+            for (int p = 0; p < phases.length; p++) best[p] = Math.max(best[p], tput[p]);
+            printRow("static " + size, tput, phaseMillis);
+        }
+
+        ThreadPoolExecutor pool = newPool(4);
+        PhaseRecorder recorder = new PhaseRecorder(100, TimeUnit.MILLISECONDS);
+        PoolSizeController controller = new PoolSizeController(pool, 1, 128, 100, TimeUnit.MILLISECONDS, recorder);
+        double[] tput = simulate(pool, recorder, phases, phaseMillis);
+        controller.close();
+        printRow("hill-climbing", tput, phaseMillis);
+
+        System.out.println("\nController per phase: convergence = first interval within 90% of the best static size");
+        for (int p = 0; p < phases.length; p++) {
+            System.out.printf("%-10s | converged after %5s ms | pool size at end %3d%n", phases[p],
+                    recorder.convergenceMillis(p, best[p] * 0.9), recorder.sizeAtEndOf(p));
+        }
+    }
+
+    // =========================
+    // CONTROLLER
+    // =========================
+    public static final class PoolSizeController implements AutoCloseable {
+        private static final double NOISE = 0.05; // a change under 5% is "flat"
+
+        /** Called on the controller thread after every measurement; must be cheap and non-blocking. */
+        @FunctionalInterface
+        public interface TickListener {
+            void onTick(long nanos, int size, double throughput);
+        }
+
+        private final ThreadPoolExecutor pool;
+        private final int min, max;
+        private final TickListener listener;
+        private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pool-size-controller");
+            t.setDaemon(true);
+            return t;
+        });
+        private final OperatingSystemMXBean os =
+                (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+
+        // Touched only by the timer thread
+        private long lastCompleted, lastSampleNanos;
+        private double lastThroughput;
+        private int direction = +1;
+        private int step = 1;
+
+        public PoolSizeController(ThreadPoolExecutor pool, int min, int max, long interval, TimeUnit unit) {
+            this(pool, min, max, interval, unit, (nanos, size, throughput) -> {});
+        }
+
+        /** Keeps no history itself: whoever wants one records it through {@code listener}. */
+        public PoolSizeController(ThreadPoolExecutor pool, int min, int max, long interval, TimeUnit unit,
+                                  TickListener listener) {
+            this.pool = pool;
+            this.min = min;
+            this.max = max;
+            this.listener = listener;
+            this.lastCompleted = pool.getCompletedTaskCount();
+            this.lastSampleNanos = System.nanoTime();
+            timer.scheduleAtFixedRate(this::tick, interval, interval, unit);
+        }
+
+        /** One measurement + one move. */
+        private void tick() {
+            long now = System.nanoTime();
+            long completed = pool.getCompletedTaskCount();
+            double throughput = (completed - lastCompleted) * 1e9 / (now - lastSampleNanos);
+            int queued = pool.getQueue().size();
+            double queueDelayMs = throughput == 0 ? 0 : queued * 1e3 / throughput; // Little's law
+            double cpu = os.getProcessCpuLoad();                                    // 0..1 of all cores
+            int size = pool.getCorePoolSize();
+
+            listener.onTick(now, size, throughput);
+            resize(nextSize(size, throughput, queueDelayMs, cpu));
+
+            lastCompleted = completed;
+            lastSampleNanos = now;
+            lastThroughput = throughput;
+        }
+
+        /**
+         * Hill-climbing: keep walking while throughput improves, turn around when it drops.
+         * On a plateau, the queue decides: work waiting and CPU to spare → grow, else shrink
+         * (fewer threads for the same throughput is strictly better).
+         */
+        int nextSize(int size, double throughput, double queueDelayMs, double cpu) {
+            double change = lastThroughput == 0 ? 0 : (throughput - lastThroughput) / lastThroughput;
+            if (change > NOISE) {
+                step = Math.min(step * 2, Math.max(1, size / 2)); // accelerate along a good direction
+            } else if (change < -NOISE) {
+                direction = -direction;                          // overshot: go back, slowly
+                step = 1;
+            } else {
+                boolean starving = queueDelayMs > 1 && cpu < 0.9; // tasks wait although cores are idle
+                int wanted = starving ? +1 : -1;
+                step = wanted == direction ? Math.min(step * 2, Math.max(1, size / 4)) : 1; // plateau: probe faster
+                direction = wanted;
+            }
+            return Math.max(min, Math.min(max, size + direction * step));
+        }
+
+        private void resize(int target) {
+            int current = pool.getCorePoolSize();
+            if (target > current) {
+                pool.setMaximumPoolSize(target); // max first when growing...
+                pool.setCorePoolSize(target);
+            } else if (target < current) {
+                pool.setCorePoolSize(target);    // ...core first when shrinking (core ≤ max always)
+                pool.setMaximumPoolSize(target);
+            }
+        }
+
+        @Override
+        public void close() {
+            timer.shutdownNow();
+        }
+    }
+
+    // =========================
+    // SIMULATION
+    // =========================
+    enum Workload {
+        CPU_BOUND(200_000, 0),       // ~pure computation: more threads than cores only adds switching
+        BLOCKING(5_000, 2_000_000),  // 2 ms "database call": needs many threads
+        MIXED(50_000, 500_000);
+
+        final int spinIterations;
+        final long blockNanos;
+
+        Workload(int spinIterations, long blockNanos) {
+            this.spinIterations = spinIterations;
+            this.blockNanos = blockNanos;
+        }
+    }
+
+    /** Simulation-only bookkeeping: tags every controller tick with the workload phase it measured. */
+    static final class PhaseRecorder implements PoolSizeController.TickListener {
+        private final long intervalNanos;
+        private final List<Sample> history = new ArrayList<>(); // guarded by this; one run only
+        private volatile int phase;
+        private int lastPhase; // controller thread only
+
+        PhaseRecorder(long interval, TimeUnit unit) {
+            this.intervalNanos = unit.toNanos(interval);
+        }
+
+        void markPhase(int p) {
+            phase = p;
+        }
+
+        @Override
+        public void onTick(long nanos, int size, double throughput) {
+            int p = phase;
+            synchronized (this) { // an interval that straddles a phase change belongs to neither
+                history.add(new Sample(p == lastPhase ? p : -1, nanos, size, throughput));
+            }
+            lastPhase = p;
+        }
+
+        /** Milliseconds from the start of phase p until throughput first reached {@code target}. */
+        synchronized String convergenceMillis(int p, double target) {
+            long start = -1;
+            for (Sample s : history) {
+                if (s.phase != p) continue;
+                if (start < 0) start = s.nanos - 2 * intervalNanos; // phase began during the skipped interval
+                if (s.throughput >= target) return String.valueOf((s.nanos - start) / 1_000_000);
+            }
+            return "never";
+        }
+
+        synchronized int sizeAtEndOf(int p) {
+            int size = -1;
+            for (Sample s : history) if (s.phase == p) size = s.size;
+            return size;
+        }
+
+        record Sample(int phase, long nanos, int size, double throughput) {}
+    }
+
+    private static volatile Workload current = Workload.CPU_BOUND;
+    static volatile long sink;
+
+    private static void task() {
+        Workload w = current;
+        long x = 1;
+        for (int i = 0; i < w.spinIterations; i++) x = x * 6364136223846793005L + 1442695040888963407L;
+        sink = x;
+        if (w.blockNanos > 0) LockSupport.parkNanos(w.blockNanos);
+    }
+
+    private static ThreadPoolExecutor newPool(int size) {
+        return new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+    }
+
+    /** Keeps the queue full for every phase and returns the throughput of each phase. */
+    private static double[] simulate(ThreadPoolExecutor pool, PhaseRecorder recorder,
+                                     Workload[] phases, long phaseMillis) throws InterruptedException {
+        double[] throughput = new double[phases.length];
+        for (int p = 0; p < phases.length; p++) {
+            current = phases[p];
+            if (recorder != null) recorder.markPhase(p);
+            long before = pool.getCompletedTaskCount();
+            long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(phaseMillis);
+            while (System.nanoTime() < end) {
+                while (pool.getQueue().size() < 1_000) pool.execute(Java_29_PoolSizeController::task);
+                LockSupport.parkNanos(1_000_000);
+            }
+            throughput[p] = (pool.getCompletedTaskCount() - before) * 1000.0 / phaseMillis;
+        }
+        pool.shutdownNow();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+        return throughput;
+    }
+
+    private static void printRow(String name, double[] throughput, long phaseMillis) {
+        System.out.printf("%-16s", name);
+        double total = 0;
+        for (double t : throughput) {
+            System.out.printf("| %18.0f ", t);
+            total += t * phaseMillis / 1000;
+        }
+        System.out.printf("| %11.0f%n", total);
+    }
+}
+
+/*
+================================================================================
+SELF-TUNING THREAD POOL SIZE (HILL CLIMBING) – DEEP DIVE
+================================================================================
+
+WHAT:
+-----
+A controller that periodically sets corePoolSize / maximumPoolSize of a running
+ThreadPoolExecutor from measurements, instead of a constant chosen at startup.
+
+WHY IT EXISTS:
+--------------
+• newFixedThreadPool(3) is a guess:
+  - CPU-bound work → best size ≈ cores; more = context switches + cache misses
+  - Blocking work  → best size ≈ cores × (1 + wait/compute), often 10–100×
+• Real services shift between the two during the day → any constant is wrong half the time.
+
+INTERNAL WORKING:
+-----------------
+Every interval (100 ms):
+• throughput  = Δ completed tasks / Δ time
+• queue delay ≈ queue length / throughput       (Little's law, no per-task timing)
+• CPU         = OperatingSystemMXBean.getProcessCpuLoad()
+Move:
+• throughput ↑ → keep direction, double the step (bounded by size / 2)
+• throughput ↓ → reverse direction, step 1
+• flat (±5%)  → tasks waiting AND CPU < 90% → grow, otherwise shrink
+  (repeated plateau moves in the same direction double the step, up to size / 4)
+Resize order matters: grow max then core, shrink core then max (core ≤ max).
+
+TIME COMPLEXITY / PERFORMANCE:
+-----------------------------
+• Controller cost: a few getters every 100 ms — nothing on the task path
+• Constant memory: no sample history inside the controller; a TickListener can record one
+• Convergence: O(log(optimal size)) intervals while climbing, then ±1 oscillation
+• .NET adds a sinusoidal probe + Fourier filter to separate signal from noise
+
+ENTERPRISE PITFALLS:
+-------------------
+❌ Interval shorter than task duration → throughput samples are pure noise
+❌ No max bound → a slow downstream makes the controller add threads forever
+   (combine with Java_26 admission control)
+❌ Tuning a pool that shares a lock → more threads = more contention, throughput drops
+   and the controller correctly shrinks — the fix is the lock, not the pool
+
+REAL SYSTEM USAGE:
+-----------------
+✔ .NET ThreadPool hill-climbing (since .NET 4)
+✔ Netflix concurrency-limits / adaptive bulkheads
+✔ Database connection pools with adaptive sizing
+
+INTERVIEW ONE-LINER:
+-------------------
+"Don't pick the pool size — measure throughput, step the size, and keep walking uphill."
+================================================================================
+*/
@@ -0,0 +1,411 @@
+package JAVA_09_MULTITHREADING_CONCURRENCY;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind log writer: pool tasks hand records to a lock-free queue and move on; one
+ * flusher thread coalesces them into large direct ByteBuffers, writes them with
+ * AsynchronousFileChannel and fsyncs ONCE per batch (group commit). A record's future
+ * completes when it is durable. Replaces the Thread.sleep "I/O" of Java_8_ExecutorFramework.
+ */
+public class Java_30_WriteBehindBatchWriter {
+
+    public static void main(String[] args) throws Exception {
+        int producers = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int records = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        Path dir = Files.createTempDirectory("write-behind");
+
+        // --- Demo ---
+        Path demoFile = dir.resolve("demo.log");
+        try (WriteBehindWriter log = new WriteBehindWriter(demoFile, 64 * 1024, 2, TimeUnit.MILLISECONDS)) {
+            CompletableFuture<Void> durable = log.append("order#1 accepted".getBytes(StandardCharsets.UTF_8));
+            durable.join();
+            System.out.println("order#1 is on disk: " + Files.size(demoFile) + " bytes, " + log.report());
+        }
+
+        // --- Benchmark: same records, same durability (fsync before the task is "done") ---
+        byte[] record = new byte[100];
+        System.out.printf("%n%,d records x %d bytes from %d pool threads%n", records, record.length, producers);
+        System.out.println("writer                                | records/s | fsyncs/s | avg records/fsync");
+        benchWriteBehind(dir.resolve("warm-up.log"), producers, records, record, 1_000, false);
+        benchFileOutputStream(dir.resolve("fos.log"), producers, records, record);
+        for (long latencyMicros : new long[]{100, 1_000, 5_000}) {
+            benchWriteBehind(dir.resolve("wb-" + latencyMicros + ".log"), producers, records, record, latencyMicros, true);
+        }
+
+        try (var files = Files.list(dir)) {
+            for (Path p : files.toList()) Files.delete(p);
+        }
+        Files.delete(dir);
+    }
+
+    // =========================
+    // WRITER
+    // =========================
+    public static final class WriteBehindWriter implements AutoCloseable {
+        private final AsynchronousFileChannel channel;
+        private final long maxLatencyNanos;
+        private final int batchBytes;
+        private final Java_24_KeyAffineExecutor.MpscQueue<Pending> queue = new Java_24_KeyAffineExecutor.MpscQueue<>();
+        // Two buffers: one being filled while the other is written + forced (double buffering)
+        private final BlockingQueue<Batch> freeBatches = new ArrayBlockingQueue<>(2);
+        private final Thread flusher;
+        private volatile boolean flusherIdle;
+        private volatile boolean closed;
+        // appends between their closed check and a fully linked offer; the flusher outlives them
+        private final AtomicInteger appending = new AtomicInteger();
+
+        private final LongAdder recordsWritten = new LongAdder();
+        private final LongAdder fsyncs = new LongAdder();
+        private final LongAdder bytesWritten = new LongAdder();
+
+        private long position; // flusher-private: file offset of the next batch
+        // flusher-private: commit of the previous batch; each batch forces + completes after it
+        private CompletableFuture<Void> lastCommit = CompletableFuture.completedFuture(null);
+        private volatile Throwable failure; // sticky: once a batch fails, every later one fails
+
+        /**
+         * @param batchBytes size of each direct buffer; a batch is flushed when full...
+         * @param maxLatency ...or when its oldest record has waited this long, or when the
+         *                   disk is idle (no point in waiting for company then)
+         */
+        public WriteBehindWriter(Path file, int batchBytes, long maxLatency, TimeUnit unit) throws IOException {
+            this.channel = AsynchronousFileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.batchBytes = batchBytes;
+            this.maxLatencyNanos = unit.toNanos(maxLatency);
+            for (int i = 0; i < 2; i++) freeBatches.add(new Batch(batchBytes));
+            flusher = new Thread(this::flushLoop, "write-behind-" + file.getFileName());
+            flusher.setDaemon(true);
+            flusher.start();
+        }
+
+        /** Non-blocking for the caller: one allocation + one getAndSet (+ the in-flight count). */
+        public CompletableFuture<Void> append(byte[] record) {
+            if (record.length + Integer.BYTES > batchBytes) {
+                throw new IllegalArgumentException("record larger than a batch: " + record.length);
+            }
+            appending.incrementAndGet(); // before the closed check: close() cannot miss this append
+            try {
+                if (closed) throw new IllegalStateException("writer is closed");
+                if (failure != null) return CompletableFuture.failedFuture(failure);
+                Pending p = new Pending(record, System.nanoTime());
+                queue.offer(p);
+                if (flusherIdle) LockSupport.unpark(flusher);
+                return p.durable;
+            } finally {
+                appending.decrementAndGet();
+            }
+        }
+
+        private void flushLoop() {
+            Pending carry = null; // a record that didn't fit in the previous batch
+            while (true) {
+                Batch batch;
+                try {
+                    batch = freeBatches.take(); // both buffers in flight → wait for the disk
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long deadline = 0;
+                while (true) {
+                    Pending p = carry != null ? carry : queue.poll();
+                    carry = null;
+                    if (p != null) {
+                        if (!batch.add(p)) {
+                            carry = p;
+                            break;                                        // full
+                        }
+                        if (batch.size() == 1) deadline = p.enqueuedNanos + maxLatencyNanos;
+                        continue;
+                    }
+                    if (batch.size() > 0 && (System.nanoTime() >= deadline || freeBatches.size() == 1)) {
+                        break;                                            // latency bound hit, or disk idle
+                    }
+                    // Closed, no append still between its check and its offer, and the queue
+                    // (re-checked after that) is empty → no record can ever arrive again
+                    if (batch.size() == 0 && closed && appending.get() == 0 && queue.isEmpty()) {
+                        freeBatches.add(batch);
+                        return;
+                    }
+                    flusherIdle = true;
+                    if (queue.isEmpty()) {
+                        LockSupport.parkNanos(batch.size() == 0 ? TimeUnit.MILLISECONDS.toNanos(10)
+                                : Math.max(1, deadline - System.nanoTime()));
+                    }
+                    flusherIdle = false;
+                }
+                write(batch);
+            }
+        }
+
+        /**
+         * Writes the batch at its offset. The write may overlap the previous batch's write/fsync,
+         * but force + completion wait for the previous batch's commit: futures complete in file
+         * order, so an acknowledged record never sits behind a hole. A failed earlier batch fails
+         * this one too (its offset was already handed out).
+         */
+        private void write(Batch batch) {
+            batch.buffer.flip();
+            long at = position;
+            position += batch.buffer.remaining();
+            CompletableFuture<Void> written = new CompletableFuture<>();
+            if (failure != null) {
+                written.completeExceptionally(failure); // don't write past a known gap
+            } else {
+                channel.write(batch.buffer, at, batch, new CompletionHandler<>() {
+                    @Override
+                    public void completed(Integer n, Batch b) {
+                        if (b.buffer.hasRemaining()) { // short write: continue where it stopped
+                            channel.write(b.buffer, at + b.buffer.position(), b, this);
+                            return;
+                        }
+                        written.complete(null);
+                    }
+
+                    @Override
+                    public void failed(Throwable e, Batch b) {
+                        written.completeExceptionally(e);
+                    }
+                });
+            }
+
+            CompletableFuture<Void> commit = new CompletableFuture<>();
+            lastCommit.whenComplete((ignored, earlierError) -> written.whenComplete((ignored2, writeError) -> {
+                Throwable error = earlierError != null ? earlierError : writeError;
+                if (error == null) {
+                    try {
+                        channel.force(false); // group commit: ONE fsync for every record in the batch
+                        fsyncs.increment();
+                        recordsWritten.add(batch.size());
+                        bytesWritten.add(batch.buffer.limit());
+                    } catch (IOException e) {
+                        error = e;
+                    }
+                }
+                if (error != null && failure == null) failure = error;
+                batch.complete(error);
+                recycle(batch);
+                if (error == null) commit.complete(null); else commit.completeExceptionally(error);
+            }));
+            lastCommit = commit;
+        }
+
+        private void recycle(Batch b) {
+            b.reset();
+            freeBatches.add(b);
+            LockSupport.unpark(flusher); // the disk just went idle: a waiting partial batch can go now
+        }
+
+        public long recordsWritten() { return recordsWritten.sum(); }
+        public long fsyncs() { return fsyncs.sum(); }
+
+        public String report() {
+            return String.format("[records=%d fsyncs=%d bytes=%d]", recordsWritten.sum(), fsyncs.sum(), bytesWritten.sum());
+        }
+
+        /**
+         * Flushes everything already appended, then closes the file. Waits even if interrupted
+         * (closing the channel under a write would fail records already accepted) and re-asserts
+         * the interrupt afterwards.
+         */
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            LockSupport.unpark(flusher);
+            boolean interrupted = false;
+            int returned = 0;
+            while (true) {
+                try {
+                    flusher.join(); // exits only once every append that passed the closed check is queued
+                    for (; returned < 2; returned++) freeBatches.take(); // both buffers back = nothing in flight
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            channel.close();
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+
+        /** A record waiting for its batch. */
+        static final class Pending {
+            final byte[] data;
+            final long enqueuedNanos;
+            final CompletableFuture<Void> durable = new CompletableFuture<>();
+
+            Pending(byte[] data, long enqueuedNanos) {
+                this.data = data;
+                this.enqueuedNanos = enqueuedNanos;
+            }
+        }
+
+        /** Pre-allocated direct buffer + the records it carries. Format: [int length][bytes]... */
+        static final class Batch {
+            final ByteBuffer buffer;
+            private final List<Pending> records = new ArrayList<>();
+
+            Batch(int bytes) {
+                buffer = ByteBuffer.allocateDirect(bytes); // no extra copy into a temporary direct buffer
+            }
+
+            boolean add(Pending p) {
+                if (buffer.remaining() < Integer.BYTES + p.data.length) return false;
+                buffer.putInt(p.data.length).put(p.data);
+                records.add(p);
+                return true;
+            }
+
+            int size() {
+                return records.size();
+            }
+
+            void complete(Throwable error) {
+                for (Pending p : records) {
+                    if (error == null) p.durable.complete(null);
+                    else p.durable.completeExceptionally(error);
+                }
+            }
+
+            void reset() {
+                buffer.clear();
+                records.clear();
+            }
+        }
+    }
+
+    // =========================
+    // BENCHMARK
+    // =========================
+    /** The blocking way: each task writes and fsyncs its own record; the stream is shared. */
+    private static void benchFileOutputStream(Path file, int producers, int records, byte[] record)
+            throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        LongAdder syncs = new LongAdder();
+        long t0 = System.nanoTime();
+        try (FileOutputStream out = new FileOutputStream(file.toFile())) {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int i = 0; i < records; i++) {
+                tasks.add(pool.submit(() -> {
+                    try {
+                        synchronized (out) {
+                            out.write(record);
+                            out.getFD().sync(); // durable before the task returns
+                            syncs.increment();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+            }
+            for (Future<?> f : tasks) f.get();
+        }
+        report("FileOutputStream + fsync per task", records, syncs.sum(), System.nanoTime() - t0);
+        pool.shutdown();
+    }
+
+    private static void benchWriteBehind(Path file, int producers, int records, byte[] record, long latencyMicros,
+                                         boolean print) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        long t0 = System.nanoTime();
+        long fsyncs;
+        try (WriteBehindWriter writer = new WriteBehindWriter(file, 256 * 1024, latencyMicros, TimeUnit.MICROSECONDS)) {
+            List<CompletableFuture<Void>> durable = new ArrayList<>(records);
+            List<Future<CompletableFuture<Void>>> tasks = new ArrayList<>(records);
+            for (int i = 0; i < records; i++) tasks.add(pool.submit(() -> writer.append(record)));
+            for (Future<CompletableFuture<Void>> f : tasks) durable.add(f.get());
+            CompletableFuture.allOf(durable.toArray(new CompletableFuture<?>[0])).join();
+            fsyncs = writer.fsyncs();
+        }
+        if (print) report("write-behind, max latency " + latencyMicros + " us", records, fsyncs, System.nanoTime() - t0);
+        pool.shutdown();
+    }
+
+    private static void report(String name, int records, long fsyncs, long nanos) {
+        double secs = nanos / 1e9;
+        System.out.printf("%-37s | %9.0f | %8.0f | %.1f%n", name, records / secs, fsyncs / secs,
+                (double) records / Math.max(1, fsyncs));
+    }
+}
+
+/*
+================================================================================
+WRITE-BEHIND BATCH WRITER (GROUP COMMIT) – DEEP DIVE
+================================================================================
+
+WHAT:
+-----
+append(record) → CompletableFuture that completes when the record is DURABLE.
+Behind it: lock-free queue → one flusher → direct ByteBuffer batch →
+AsynchronousFileChannel.write → ONE fsync per batch.
+
+WHY IT EXISTS:
+--------------
+• Per-task write + fsync: every pool thread blocks on the disk, and fsyncs are
+  serialized → throughput = 1 / fsync latency (a few hundred per second on real disks).
+• fsync cost barely depends on size → 1 fsync for 1000 records ≈ cost of 1.
+• Databases call this "group commit" (PostgreSQL commit_delay, MySQL binlog group commit).
+
+INTERNAL WORKING:
+-----------------
+• Producers: allocate a Pending + one getAndSet on the MPSC queue from Java_24 → return.
+• Flusher fills a batch until:
+  - the buffer is full, or
+  - the oldest record in it waited maxLatency, or
+  - the disk is idle (the other buffer is free) → flush now, don't wait for company.
+• Two direct buffers = double buffering: fill one while the other is written + forced.
+• Direct buffers → the kernel copies from them directly (heap buffers get copied
+  into a temporary direct buffer first).
+• Both buffers may be in flight, but batch N+1 forces + completes only after batch N's commit:
+  futures complete in FILE ORDER (no acknowledged record behind an unwritten hole).
+• A failed write / fsync is sticky: every later batch and append fails too.
+• Write completion → (previous commit done) → force(false) → complete futures → recycle buffer.
+
+TIME COMPLEXITY / PERFORMANCE:
+-----------------------------
+• append: O(1), wait-free, no lock, no I/O on the caller's thread
+• fsyncs/s drop from "one per record" to "one per batch"
+• Latency per record ≤ maxLatency + one write + one fsync
+
+ENTERPRISE PITFALLS:
+-------------------
+❌ Acknowledging the client before the future completes → data loss on crash
+❌ Unbounded queue → a stalled disk turns into OutOfMemoryError (bound it, see Java_26)
+❌ force(false) skips metadata: fine for preallocated / append-only files, check your FS
+❌ One record bigger than the batch → rejected here; split or write it on its own
+❌ close() racing append() → a record queued after the flusher's last poll never completes
+   (here: appends in flight are counted and the flusher waits for them)
+
+REAL SYSTEM USAGE:
+-----------------
+✔ Database WAL / redo logs (group commit)
+✔ Kafka log segments (flush policy), Chronicle Queue
+✔ Audit logs, event stores, metrics spooling
+
+INTERVIEW ONE-LINER:
+-------------------
+"Don't fsync per record — batch concurrent writes and fsync once for the whole group, and
+complete each caller's future when its batch is durable."
+================================================================================
+*/
@@ -3,12 +3,27 @@ package JAVA_09_MULTITHREADING_CONCURRENCY;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
 
 public class Java_4_ExplicitLocks {
 
     private int counter = 0;
     private ReentrantLock lock = new ReentrantLock();
     private ReadWriteLock rwLock = new ReentrantReadWriteLock();
+    private StampedLock stampedLock = new StampedLock();
+
+    // Which lock guards readCounter()/addToCounter(); pick ONE per instance
+    public enum ReadMode { LOCK, RW_LOCK, STAMPED }
+
+    private final ReadMode readMode;
+
+    public Java_4_ExplicitLocks() {
+        this(ReadMode.RW_LOCK);
+    }
+
+    public Java_4_ExplicitLocks(ReadMode readMode) {
+        this.readMode = readMode;
+    }
 
     public static void main(String[] args) throws InterruptedException {
         Java_4_ExplicitLocks obj = new Java_4_ExplicitLocks();
@@ -25,6 +40,10 @@ public class Java_4_ExplicitLocks {
         System.out.println("Counter after ReentrantLock: " + obj.counter);
 
         obj.readWriteDemo();
+
+        Java_4_ExplicitLocks stamped = new Java_4_ExplicitLocks(ReadMode.STAMPED);
+        stamped.addToCounter(100);
+        System.out.println("Optimistic read counter: " + stamped.readCounter());
     }
 
     // =========================
@@ -57,6 +76,67 @@ public class Java_4_ExplicitLocks {
             rwLock.readLock().unlock();
         }
     }
+
+    // =========================
+    // Read-mostly store: lock / rwLock / StampedLock
+    // =========================
+    public int readCounter() {
+        switch (readMode) {
+            case LOCK:
+                lock.lock();
+                try {
+                    return counter;
+                } finally {
+                    lock.unlock();
+                }
+            case RW_LOCK:
+                rwLock.readLock().lock(); // still a CAS on the shared reader count
+                try {
+                    return counter;
+                } finally {
+                    rwLock.readLock().unlock();
+                }
+            default:
+                long stamp = stampedLock.tryOptimisticRead(); // plain volatile read, no write
+                int value = counter;
+                if (stampedLock.validate(stamp)) return value;
+
+                stamp = stampedLock.readLock(); // a writer slipped in -> fall back to a real read lock
+                try {
+                    return counter;
+                } finally {
+                    stampedLock.unlockRead(stamp);
+                }
+        }
+    }
+
+    public void addToCounter(int delta) {
+        switch (readMode) {
+            case LOCK:
+                lock.lock();
+                try {
+                    counter += delta;
+                } finally {
+                    lock.unlock();
+                }
+                break;
+            case RW_LOCK:
+                rwLock.writeLock().lock();
+                try {
+                    counter += delta;
+                } finally {
+                    rwLock.writeLock().unlock();
+                }
+                break;
+            default:
+                long stamp = stampedLock.writeLock();
+                try {
+                    counter += delta;
+                } finally {
+                    stampedLock.unlockWrite(stamp);
+                }
+        }
+    }
 }
 
 /*
@@ -70,6 +150,7 @@ Explicit locks give **fine-grained control** over synchronization beyond `synchr
 Includes:
 • ReentrantLock
 • ReadWriteLock
+• StampedLock (optimistic reads)
 
 WHY IT EXISTS:
 --------------
@@ -84,6 +165,8 @@ INTERNAL WORKING:
 • tryLock() → non-blocking attempt
 • lockInterruptibly() → responds to interrupts
 • ReadWriteLock separates read lock and write lock state internally
+• StampedLock.tryOptimisticRead() returns a stamp WITHOUT writing shared state;
+  validate(stamp) fails if a writer got in → retry under readLock()
 
 DEFAULT VALUES:
 ---------------
@@ -96,6 +179,9 @@ TIME COMPLEXITY / PERFORMANCE:
 • Lock acquisition: O(1) amortized
 • High contention → threads enqueued
 • Reader-heavy scenario → better throughput than synchronized
+• Read lock still CASes the shared reader count → cache line bounces between readers
+• Optimistic read: no write at all → readers scale until writes become frequent
+  (see Java_15_ReadMostlyBenchmark)
 
 CORE FEATURES:
 --------------
@@ -110,6 +196,7 @@ ENTERPRISE PITFALLS:
 ❌ Forgetting unlock → deadlocks
 ❌ Using write lock unnecessarily → reduces concurrency
 ❌ Mixing intrinsic and explicit locks → unpredictable behavior
+❌ StampedLock is NOT reentrant; optimistic reads must copy fields into locals and only use them after validate()
 
 REAL SYSTEM USAGE:
 -----------------